@@ -0,0 +1,63 @@
+package com.gigglegazette.article_service.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Author payloads keyed by user ID, shared by the blocking and the reactive user clients.
+ * <p>
+ * Payloads are fetched from user-service outside the cache, so an author invalidated while
+ * a fetch is in flight could be put back with the details read before the change. Callers
+ * take the {@link #generation()} before fetching and store the result with
+ * {@link #putIfCurrent(String, Map, long)}, which drops it if any author was invalidated since.
+ */
+public class AuthorCache {
+
+    private final Cache<String, Map<String, Object>> authors;
+    private final AtomicLong generation = new AtomicLong();
+
+    public AuthorCache(Cache<String, Map<String, Object>> authors) {
+        this.authors = authors;
+    }
+
+    public Map<String, Object> getIfPresent(String id) {
+        return authors.getIfPresent(id);
+    }
+
+    public Map<String, Map<String, Object>> getAllPresent(Iterable<String> ids) {
+        return authors.getAllPresent(ids);
+    }
+
+    /**
+     * The number of invalidations so far, to be taken before fetching payloads from user-service.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Cache a payload fetched from user-service, unless an author was invalidated since the fetch started.
+     *
+     * @param id         The ID of the author.
+     * @param author     The payload read from user-service.
+     * @param generation The {@link #generation()} taken before the fetch.
+     */
+    public void putIfCurrent(String id, Map<String, Object> author, long generation) {
+        // Runs under the lock of the key, as does invalidate, so the check and the put cannot straddle an invalidation
+        authors.asMap().compute(id, (key, cached) -> this.generation.get() == generation ? author : cached);
+    }
+
+    /**
+     * Drop the cached payload of an author, and any payload of it still being fetched.
+     *
+     * @param id The ID of the author whose cached details are stale.
+     */
+    public void invalidate(String id) {
+        authors.asMap().compute(id, (key, cached) -> {
+            generation.incrementAndGet();
+            return null;
+        });
+    }
+}
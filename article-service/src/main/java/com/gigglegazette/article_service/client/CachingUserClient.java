@@ -0,0 +1,64 @@
+package com.gigglegazette.article_service.client;
+
+import com.gigglegazette.article_service.util.CustomResponse;
+import org.springframework.http.ResponseEntity;
+
+import java.util.*;
+
+/**
+ * {@link UserClient} that keeps recently used author payloads in memory and
+ * only goes to user-service for authors it has not seen yet.
+ */
+public class CachingUserClient implements UserClient {
+
+    private final UserClient delegate;
+    private final AuthorCache authors;
+
+    public CachingUserClient(UserClient delegate, AuthorCache authors) {
+        this.delegate = delegate;
+        this.authors = authors;
+    }
+
+    @Override
+    public ResponseEntity<CustomResponse<Map<String, Object>>> getUserById(String id) {
+        Map<String, Object> cached = authors.getIfPresent(id);
+        if (cached != null) {
+            return ResponseEntity.ok(new CustomResponse<>("User retrieved successfully", cached, true));
+        }
+        long generation = authors.generation();
+        ResponseEntity<CustomResponse<Map<String, Object>>> response = delegate.getUserById(id);
+        CustomResponse<Map<String, Object>> body = response.getBody();
+        if (body != null && body.getData() != null) {
+            authors.putIfCurrent(id, body.getData(), generation);
+        }
+        return response;
+    }
+
+    @Override
+    public ResponseEntity<CustomResponse<List<Map<String, Object>>>> getUsersByIds(List<String> ids) {
+        // Only the ids missing from the cache are sent to user-service, in one batch
+        Map<String, Map<String, Object>> found = new HashMap<>(authors.getAllPresent(ids));
+        List<String> missing = ids.stream().filter(id -> !found.containsKey(id)).distinct().toList();
+        if (!missing.isEmpty()) {
+            long generation = authors.generation();
+            CustomResponse<List<Map<String, Object>>> body = delegate.getUsersByIds(missing).getBody();
+            if (body != null && body.getData() != null) {
+                for (Map<String, Object> user : body.getData()) {
+                    String id = String.valueOf(user.get("id"));
+                    found.put(id, user);
+                    authors.putIfCurrent(id, user, generation);
+                }
+            }
+        }
+        return ResponseEntity.ok(new CustomResponse<>("Users retrieved successfully", new ArrayList<>(found.values()), true));
+    }
+
+    /**
+     * Drop the cached payload of an author so the next read goes to user-service.
+     *
+     * @param id The ID of the author whose cached details are stale.
+     */
+    public void invalidate(String id) {
+        authors.invalidate(id);
+    }
+}
@@ -0,0 +1,20 @@
+package com.gigglegazette.article_service.client;
+
+import com.gigglegazette.article_service.util.CustomResponse;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link UserClient}: calls return as soon as the
+ * request is sent, and no thread waits for user-service to answer.
+ */
+@HttpExchange
+public interface ReactiveUserClient {
+    @GetExchange("/users/batch")
+    public Mono<CustomResponse<List<Map<String, Object>>>> getUsersByIds(@RequestParam List<String> ids);
+}
@@ -1,12 +1,20 @@
 package com.gigglegazette.article_service.client;
 
+import com.gigglegazette.article_service.util.CustomResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
 
+import java.util.List;
+import java.util.Map;
+
 @HttpExchange
 public interface UserClient {
     @GetExchange("/users/{id}")
-    public ResponseEntity<?> getUserById(@PathVariable String id);
+    public ResponseEntity<CustomResponse<Map<String, Object>>> getUserById(@PathVariable String id);
+
+    @GetExchange("/users/batch")
+    public ResponseEntity<CustomResponse<List<Map<String, Object>>>> getUsersByIds(@RequestParam List<String> ids);
 }
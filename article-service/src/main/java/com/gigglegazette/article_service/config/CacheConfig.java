@@ -0,0 +1,44 @@
+package com.gigglegazette.article_service.config;
+
+import com.gigglegazette.article_service.service.ArticleResponseCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    // Per-entry bookkeeping on top of the plain and compressed JSON bytes: map node, entry record, etag and author ID
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    @Value("${gigglegazette.app.articleResponseCacheSize:64MB}")
+    private DataSize articleResponseCacheSize;
+
+    // Responses embed author details, so they are not kept longer than the author cache keeps them
+    @Value("${gigglegazette.app.authorCacheTtl:10m}")
+    private Duration authorCacheTtl;
+
+    /**
+     * Serialized article responses, bounded by their total size in bytes rather than
+     * their count, since article bodies vary from a few hundred bytes to megabytes.
+     */
+    @Bean
+    public ArticleResponseCache articleResponseCache(MeterRegistry meterRegistry) {
+        Cache<String, ArticleResponseCache.Entry> cache = Caffeine.newBuilder()
+                .maximumWeight(articleResponseCacheSize.toBytes())
+                .weigher((String id, ArticleResponseCache.Entry entry) ->
+                        (int) Math.min(Integer.MAX_VALUE, (long) entry.json().length + entry.gzipJson().length + ENTRY_OVERHEAD_BYTES))
+                .expireAfterWrite(authorCacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "articleResponses");
+        return new ArticleResponseCache(cache);
+    }
+}
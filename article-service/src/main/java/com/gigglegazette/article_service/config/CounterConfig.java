@@ -0,0 +1,39 @@
+package com.gigglegazette.article_service.config;
+
+import com.gigglegazette.article_service.counter.WriteBehindCounter;
+import com.gigglegazette.article_service.model.Article;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+
+@Configuration
+public class CounterConfig {
+
+    @Value("${gigglegazette.app.likeFlushInterval:PT5S}")
+    private Duration likeFlushInterval;
+
+    @Value("${gigglegazette.app.likeMaxPending:10000}")
+    private long likeMaxPending;
+
+    @Value("${gigglegazette.app.viewFlushInterval:PT10S}")
+    private Duration viewFlushInterval;
+
+    @Value("${gigglegazette.app.viewMaxPending:100000}")
+    private long viewMaxPending;
+
+    @Bean
+    public WriteBehindCounter articleLikeCounter(MongoTemplate mongoTemplate, TaskScheduler taskScheduler) {
+        return new WriteBehindCounter(mongoTemplate, Article.class, "likes",
+                taskScheduler, likeFlushInterval, likeMaxPending);
+    }
+
+    @Bean
+    public WriteBehindCounter articleViewCounter(MongoTemplate mongoTemplate, TaskScheduler taskScheduler) {
+        return new WriteBehindCounter(mongoTemplate, Article.class, "views",
+                taskScheduler, viewFlushInterval, viewMaxPending);
+    }
+}
@@ -0,0 +1,28 @@
+package com.gigglegazette.article_service.config;
+
+import com.gigglegazette.article_service.repository.FieldProjections;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Writes only the fields selected with {@link FieldProjections#select} for the current request.
+ */
+// Identical in article-service and user-service, which share no library; change both copies together
+@ControllerAdvice
+public class FieldSelectionAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(FieldProjections.REQUEST_ATTRIBUTE) instanceof FieldProjections.Projection projection) {
+            bodyContainer.setFilters(projection.filters());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.gigglegazette.article_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gigglegazette.article_service.util.CustomResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Restricts the internal {@code /authors/**} endpoints, which user-service calls when an author
+ * changes, to callers sending the secret shared by the services in an {@code X-Internal-Token}
+ * header. The API gateway does not route them, but the instances are reachable on the network,
+ * and these endpoints evict caches and delete an author's content. Without a configured
+ * secret every call is refused.
+ */
+@Configuration
+public class InternalEndpointConfig {
+
+    public static final String HEADER = "X-Internal-Token";
+
+    @Value("${gigglegazette.app.internalToken:}")
+    private String internalToken;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Bean
+    public FilterRegistrationBean<InternalTokenFilter> internalTokenFilter() {
+        FilterRegistrationBean<InternalTokenFilter> registration =
+                new FilterRegistrationBean<>(new InternalTokenFilter(internalToken, objectMapper));
+        registration.addUrlPatterns("/authors/*");
+        return registration;
+    }
+
+    static class InternalTokenFilter extends OncePerRequestFilter {
+
+        private final byte[] token;
+        private final ObjectMapper objectMapper;
+
+        InternalTokenFilter(String token, ObjectMapper objectMapper) {
+            this.token = token.getBytes(StandardCharsets.UTF_8);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String presented = request.getHeader(HEADER);
+            // Compared in constant time, so the secret cannot be guessed from response times
+            if (token.length > 0 && presented != null
+                    && MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new CustomResponse<>("Internal endpoint: a valid " + HEADER + " header is required.", null, false));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.gigglegazette.article_service.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Identical in article-service and user-service, which share no library; change both copies together
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Models carry a {@code @JsonFilter} for sparse fieldsets; without a filter for the
+     * current response every property is written, instead of failing. The filters of a
+     * response are set by {@link FieldSelectionAdvice}.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldFilterDefaults() {
+        return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+}
@@ -1,12 +1,22 @@
 package com.gigglegazette.article_service.config;
 
+import com.gigglegazette.article_service.model.ArticleRef;
+import com.gigglegazette.article_service.util.MongoRoundTrips;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
 import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.convert.ReadingConverter;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Configuration
@@ -16,4 +26,32 @@ public class MongoConfig {
     public DateTimeProvider dateTimeProvider() {
         return () -> Optional.of(LocalDateTime.now()); // Use LocalDateTime
     }
+
+    // Counts commands for the X-Mongo-Round-Trips header and captures the queries MongoIndexInitializer explains
+    @Bean
+    public MongoClientSettingsBuilderCustomizer commandListener() {
+        return settings -> settings.addCommandListener(new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                MongoRoundTrips.commandStarted(event);
+            }
+        });
+    }
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(new ObjectIdToArticleRefConverter()));
+    }
+
+    /**
+     * Reads comments and images stored before article references were embedded, which
+     * hold only the article ID, until {@code ArticleRefMigration} has rewritten them.
+     */
+    @ReadingConverter
+    static class ObjectIdToArticleRefConverter implements Converter<ObjectId, ArticleRef> {
+        @Override
+        public ArticleRef convert(ObjectId source) {
+            return new ArticleRef(source.toHexString(), null);
+        }
+    }
 }
@@ -0,0 +1,233 @@
+package com.gigglegazette.article_service.config;
+
+import com.gigglegazette.article_service.model.Article;
+import com.gigglegazette.article_service.model.CascadeJob;
+import com.gigglegazette.article_service.model.Category;
+import com.gigglegazette.article_service.model.Comment;
+import com.gigglegazette.article_service.model.Image;
+import com.gigglegazette.article_service.model.SubCategory;
+import com.gigglegazette.article_service.repository.ArticleRepository;
+import com.gigglegazette.article_service.repository.CommentRepository;
+import com.gigglegazette.article_service.repository.ImageRepository;
+import com.gigglegazette.article_service.repository.ReactiveArticleRepository;
+import com.gigglegazette.article_service.repository.ReactiveCommentRepository;
+import com.gigglegazette.article_service.repository.SubCategoryRepository;
+import com.gigglegazette.article_service.repository.ValidatorOperations;
+import com.gigglegazette.article_service.service.CascadeDeleteService;
+import com.gigglegazette.article_service.util.MongoRoundTrips;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Creates the indexes declared on the models at startup (Spring Boot leaves
+ * automatic index creation off), drops the ones no longer declared, and checks
+ * that the repository finders are planned as index scans.
+ * <p>
+ * The plans are not checked against hand-written filters, which would drift from
+ * the finders: each probe calls the finder itself and the {@code find} commands the
+ * driver sends are captured with {@link MongoRoundTrips#capture(String, Runnable)}
+ * and explained as they were sent.
+ */
+@Component
+public class MongoIndexInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    private static final List<Class<?>> INDEXED_TYPES = List.of(Article.class, Category.class, Comment.class, Image.class,
+            SubCategory.class, CascadeJob.class);
+
+    // Always present, never declared
+    private static final String ID_INDEX = "_id_";
+
+    // The keyset page the listings request, newest first
+    private static final Pageable PAGE = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id"));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ReactiveArticleRepository reactiveArticleRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ReactiveCommentRepository reactiveCommentRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private ValidatorOperations validatorOperations;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureIndexes();
+        List<QueryPlan> plans = explainQueryProbes();
+        List<String> collectionScans = plans.stream()
+                .filter(plan -> plan.stages().contains("COLLSCAN"))
+                .map(QueryPlan::probe)
+                .distinct()
+                .toList();
+        if (collectionScans.isEmpty()) {
+            logger.info("All {} repository query plans use an index", plans.size());
+        } else {
+            logger.warn("Repository queries planned as collection scans: {}", collectionScans);
+        }
+    }
+
+    /**
+     * Create any declared index that does not exist yet, and drop the indexes of the indexed
+     * collections that are no longer declared, so removed declarations stop costing writes.
+     * Existing declared indexes are left untouched.
+     */
+    public void ensureIndexes() {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> type : INDEXED_TYPES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            Set<String> declared = new HashSet<>();
+            resolver.resolveIndexFor(type).forEach(index -> declared.add(indexOps.ensureIndex(index)));
+            for (IndexInfo index : indexOps.getIndexInfo()) {
+                if (!ID_INDEX.equals(index.getName()) && !declared.contains(index.getName())) {
+                    indexOps.dropIndex(index.getName());
+                    logger.info("Dropped index {} of {}, which is no longer declared",
+                            index.getName(), mongoTemplate.getCollectionName(type));
+                }
+            }
+        }
+    }
+
+    /**
+     * The repository finders and other queries that have to be served by an index. Each one
+     * is handed a fresh ObjectId in hex form to filter on, which also tells its commands apart
+     * when the reactive driver sends them from its own threads.
+     */
+    public List<QueryProbe> queryProbes() {
+        return List.of(
+                new QueryProbe("ArticleRepository.findByAuthorId", articleRepository::findByAuthorId),
+                new QueryProbe("ReactiveArticleRepository.findSummariesByAuthorId", marker ->
+                        reactiveArticleRepository.findSummariesByAuthorId(marker).collectList().block()),
+                new QueryProbe("ReactiveArticleRepository.findSummariesByIdLessThan", marker ->
+                        reactiveArticleRepository.findSummariesByIdLessThan(new ObjectId(marker), PAGE).collectList().block()),
+                new QueryProbe("ReactiveArticleRepository.findSummariesByTags", marker -> {
+                    reactiveArticleRepository.findSummariesByTags(marker, PAGE).collectList().block();
+                    reactiveArticleRepository.findSummariesByTagsAndIdLessThan(marker, new ObjectId(marker), PAGE).collectList().block();
+                }),
+                new QueryProbe("ReactiveArticleRepository.findSummariesBySubCategoryId", marker -> {
+                    reactiveArticleRepository.findSummariesBySubCategoryId(marker, PAGE).collectList().block();
+                    reactiveArticleRepository.findSummariesBySubCategoryIdAndIdLessThan(marker, new ObjectId(marker), PAGE).collectList().block();
+                }),
+                new QueryProbe("CommentRepository.findByArticle_Id", marker -> {
+                    commentRepository.findByArticle_Id(marker);
+                    commentRepository.findByArticle_Id(marker, PAGE);
+                    commentRepository.findByArticle_IdAndIdLessThan(marker, new ObjectId(marker), PAGE);
+                }),
+                new QueryProbe("CommentRepository.findByAuthorId", marker -> {
+                    commentRepository.findByAuthorId(marker);
+                    commentRepository.findByAuthorId(marker, PAGE);
+                    commentRepository.findByAuthorIdAndIdLessThan(marker, new ObjectId(marker), PAGE);
+                }),
+                new QueryProbe("ReactiveCommentRepository.findByIdLessThan", marker ->
+                        reactiveCommentRepository.findByIdLessThan(new ObjectId(marker), PAGE).collectList().block()),
+                new QueryProbe("ImageRepository.findByArticle_Id", imageRepository::findByArticle_Id),
+                new QueryProbe("Image blob references", marker ->
+                        mongoTemplate.exists(new Query(Criteria.where("blobHash").is(marker)), Image.class)),
+                new QueryProbe("SubCategoryRepository.findSummariesByIdIn", marker ->
+                        subCategoryRepository.findSummariesByIdIn(List.of(marker))),
+                new QueryProbe("Category list validator", marker ->
+                        validatorOperations.forQuery(Category.class, new Document())),
+                new QueryProbe("Article comments validator", marker ->
+                        validatorOperations.forQuery(Comment.class, new Document("article._id", new ObjectId(marker)))),
+                new QueryProbe("Pending cascade jobs", marker ->
+                        mongoTemplate.find(CascadeDeleteService.claimQuery(LocalDateTime.now()).limit(1), CascadeJob.class))
+        );
+    }
+
+    /**
+     * Run every probe and explain each {@code find} command it sent.
+     *
+     * @return The winning plan of every command, in the order they were sent.
+     */
+    public List<QueryPlan> explainQueryProbes() {
+        List<QueryPlan> plans = new ArrayList<>();
+        for (QueryProbe probe : queryProbes()) {
+            String marker = new ObjectId().toHexString();
+            for (BsonDocument command : MongoRoundTrips.capture(marker, () -> probe.query().accept(marker))) {
+                if (command.containsKey("find")) {
+                    plans.add(new QueryPlan(probe.name(), command, winningPlanStages(command)));
+                }
+            }
+        }
+        return plans;
+    }
+
+    /**
+     * Explain a command as it was sent and list every stage of its winning plan.
+     */
+    public List<String> winningPlanStages(BsonDocument command) {
+        BsonDocument explained = new BsonDocument();
+        // Session, cluster time, database and read preference are added by the driver, not part of the query
+        command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) explained.append(key, value);
+        });
+        Document explain = mongoTemplate.getDb().runCommand(new BsonDocument("explain", explained)
+                .append("verbosity", new BsonString("queryPlanner")));
+        List<String> stages = new ArrayList<>();
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        if (queryPlanner != null) {
+            collectStages(queryPlanner.get("winningPlan"), stages);
+        }
+        return stages;
+    }
+
+    // Plans are nested differently across server versions and topologies, so walk the whole tree
+    private static void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+
+    /**
+     * @param query Runs the queries, filtering on the marker it is given.
+     */
+    public record QueryProbe(String name, Consumer<String> query) {
+    }
+
+    public record QueryPlan(String probe, BsonDocument command, List<String> stages) {
+    }
+}
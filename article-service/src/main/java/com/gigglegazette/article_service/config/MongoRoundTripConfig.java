@@ -0,0 +1,56 @@
+package com.gigglegazette.article_service.config;
+
+import com.gigglegazette.article_service.util.MongoRoundTrips;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reports the number of Mongo commands each request sent in an {@code X-Mongo-Round-Trips}
+ * response header, to compare the cost of an endpoint before and after a change.
+ * Only commands of the blocking driver are counted; queries of the reactive repositories
+ * run on driver threads and are not attributed to a request. The commands are counted by
+ * the listener {@link MongoConfig} registers, and the header is written by {@link RoundTripHeaderAdvice}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "gigglegazette.app", name = "roundTripHeader", havingValue = "true")
+public class MongoRoundTripConfig {
+
+    static final String HEADER = "X-Mongo-Round-Trips";
+    static final String COUNTER_ATTRIBUTE = MongoRoundTripConfig.class.getName() + ".counter";
+
+    @Bean
+    public OncePerRequestFilter roundTripCounterFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                    throws ServletException, IOException {
+                AtomicInteger counter = (AtomicInteger) request.getAttribute(COUNTER_ATTRIBUTE);
+                if (counter == null) {
+                    counter = new AtomicInteger();
+                    request.setAttribute(COUNTER_ATTRIBUTE, counter);
+                }
+                MongoRoundTrips.bind(counter);
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    MongoRoundTrips.unbind();
+                }
+            }
+
+            // Handlers returning Mono finish on an async dispatch, which keeps counting into the same counter
+            @Override
+            protected boolean shouldNotFilterAsyncDispatch() {
+                return false;
+            }
+        };
+    }
+}
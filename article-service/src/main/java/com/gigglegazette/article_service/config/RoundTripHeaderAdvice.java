@@ -0,0 +1,38 @@
+package com.gigglegazette.article_service.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes the count of {@link MongoRoundTripConfig} just before the response body, once the
+ * handler has sent all its commands. Off unless the header is enabled, like the counting filter.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "gigglegazette.app", name = "roundTripHeader", havingValue = "true")
+public class RoundTripHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(MongoRoundTripConfig.COUNTER_ATTRIBUTE) instanceof AtomicInteger counter) {
+            response.getHeaders().set(MongoRoundTripConfig.HEADER, String.valueOf(counter.get()));
+        }
+        return body;
+    }
+}
@@ -1,7 +1,15 @@
 package com.gigglegazette.article_service.config;
 
+import com.gigglegazette.article_service.client.AuthorCache;
+import com.gigglegazette.article_service.client.CachingUserClient;
+import com.gigglegazette.article_service.client.ReactiveUserClient;
 import com.gigglegazette.article_service.client.UserClient;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,12 +17,21 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.support.WebClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
+import java.time.Duration;
+import java.util.Map;
+
 @Configuration
 public class WebClientConfig {
 
     @Autowired
     private LoadBalancedExchangeFilterFunction filterFunction;
 
+    @Value("${gigglegazette.app.authorCacheMaxSize:10000}")
+    private long authorCacheMaxSize;
+
+    @Value("${gigglegazette.app.authorCacheTtl:10m}")
+    private Duration authorCacheTtl;
+
     @Bean
     public WebClient userWebClient() {
         return WebClient.builder()
@@ -23,12 +40,36 @@ public class WebClientConfig {
                 .build();
     }
 
+    /**
+     * Author payloads keyed by user ID. Caffeine's default W-TinyLFU policy only
+     * admits a new author over the eviction victim when it is requested more often,
+     * so one-off authors cannot flush the frequently read ones.
+     */
+    @Bean
+    public AuthorCache authorCache(MeterRegistry meterRegistry) {
+        Cache<String, Map<String, Object>> cache = Caffeine.newBuilder()
+                .maximumSize(authorCacheMaxSize)
+                .expireAfterWrite(authorCacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "authors");
+        return new AuthorCache(cache);
+    }
+
     @Bean
-    public UserClient userClient() {
-        HttpServiceProxyFactory httpServiceProxyFactory
-                = HttpServiceProxyFactory
+    public HttpServiceProxyFactory userServiceProxyFactory() {
+        return HttpServiceProxyFactory
                 .builderFor(WebClientAdapter.create(userWebClient()))
                 .build();
-        return httpServiceProxyFactory.createClient(UserClient.class);
+    }
+
+    @Bean
+    public CachingUserClient userClient(AuthorCache authorCache) {
+        return new CachingUserClient(userServiceProxyFactory().createClient(UserClient.class), authorCache);
+    }
+
+    @Bean
+    public ReactiveUserClient reactiveUserClient() {
+        return userServiceProxyFactory().createClient(ReactiveUserClient.class);
     }
 }
@@ -1,30 +1,129 @@
 package com.gigglegazette.article_service.controller;
 
-import com.gigglegazette.article_service.client.UserClient;
+import com.gigglegazette.article_service.counter.WriteBehindCounter;
 import com.gigglegazette.article_service.model.Article;
+import com.gigglegazette.article_service.model.ArticleBody;
+import com.gigglegazette.article_service.model.ArticleSummary;
+import com.gigglegazette.article_service.model.CascadeJob;
+import com.gigglegazette.article_service.model.SubCategorySummary;
 import com.gigglegazette.article_service.repository.ArticleRepository;
+import com.gigglegazette.article_service.repository.ArticleRefOperations;
+import com.gigglegazette.article_service.repository.FieldProjections;
+import com.gigglegazette.article_service.repository.PartialUpdateOperations;
+import com.gigglegazette.article_service.repository.ReactiveArticleRepository;
+import com.gigglegazette.article_service.repository.SubCategoryRepository;
+import com.gigglegazette.article_service.repository.ValidatorOperations;
+import com.gigglegazette.article_service.search.ArticleSearchIndex;
+import com.gigglegazette.article_service.search.TagIndex;
+import com.gigglegazette.article_service.search.TrendingIndex;
+import com.gigglegazette.article_service.service.ArticleBodyService;
+import com.gigglegazette.article_service.service.ArticleBulkImportService;
+import com.gigglegazette.article_service.service.ArticleResponseCache;
+import com.gigglegazette.article_service.service.ArticleViewService;
+import com.gigglegazette.article_service.service.CascadeDeleteService;
+import com.gigglegazette.article_service.service.FanOut;
+import com.gigglegazette.article_service.service.ReactiveUserClientService;
+import com.gigglegazette.article_service.service.UserClientService;
 import com.gigglegazette.article_service.util.ArticleResponse;
+import com.gigglegazette.article_service.util.ArticleSummaryResponse;
+import com.gigglegazette.article_service.util.CursorPage;
 import com.gigglegazette.article_service.util.CustomResponse;
+import com.gigglegazette.article_service.util.SearchPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/articles")
 public class ArticleController {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    // Articles per body lookup in the export, the cursor batch size of ArticleRepository.streamAllBy
+    private static final int EXPORT_BATCH_SIZE = 100;
+
     @Autowired
     private ArticleRepository articleRepository;
 
     @Autowired
-    private UserClient userClient;
+    private ReactiveArticleRepository reactiveArticleRepository;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private PartialUpdateOperations partialUpdateOperations;
+
+    @Autowired
+    private ArticleRefOperations articleRefOperations;
+
+    @Autowired
+    private ValidatorOperations validatorOperations;
+
+    @Autowired
+    private ArticleBodyService articleBodyService;
+
+    @Autowired
+    private ArticleResponseCache articleResponseCache;
+
+    @Autowired
+    private UserClientService userClientService;
+
+    @Autowired
+    private ReactiveUserClientService reactiveUserClientService;
+
+    @Autowired
+    private FanOut fanOut;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ArticleSearchIndex articleSearchIndex;
+
+    @Autowired
+    private TagIndex tagIndex;
+
+    @Autowired
+    private TrendingIndex trendingIndex;
+
+    @Autowired
+    private ArticleViewService articleViewService;
+
+    @Autowired
+    private FieldProjections fieldProjections;
+
+    @Autowired
+    private WriteBehindCounter articleLikeCounter;
+
+    @Autowired
+    private ArticleBulkImportService articleBulkImportService;
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
 
     /**
      * Create a new article.
@@ -49,8 +148,30 @@ public class ArticleController {
             );
         }
         try {
-            Article savedArticle = articleRepository.save(article);
-            Object author = userClient.getUserById(savedArticle.getAuthorId()).getBody(); // Fetch author details
+            article.setExcerpt(ArticleSummary.excerptOf(article.getContent()));
+            article.setCommentCount(0);
+            article.setLastCommentAt(null);
+            article.setCategoryId(null);
+            if (article.getSubCategoryId() != null) {
+                Optional<SubCategorySummary> subCategory = subCategoryRepository.findSummaryById(article.getSubCategoryId());
+                if (subCategory.isEmpty()) {
+                    return new ResponseEntity<>(new CustomResponse<>("SubCategory not found.", null, false), HttpStatus.NOT_FOUND);
+                }
+                article.setCategoryId(subCategory.get().getParentCategoryId());
+            }
+            // The body is stored first under the new article's ID, so a stored article always has one
+            article.setId(new ObjectId().toHexString());
+            articleBodyService.save(article.getId(), article.getHtmlContent());
+            Article savedArticle;
+            try {
+                savedArticle = articleRepository.insert(article);
+            } catch (RuntimeException e) {
+                articleBodyService.deleteById(article.getId());
+                throw e;
+            }
+            articleSearchIndex.index(savedArticle);
+            tagIndex.index(savedArticle);
+            Object author = userClientService.getAuthorById(savedArticle.getAuthorId()); // Fetch author details
             ArticleResponse articleResponse = new ArticleResponse(savedArticle, author);
             return new ResponseEntity<>(new CustomResponse<>("Article created successfully.", articleResponse, true), HttpStatus.CREATED);
         } catch (Exception e) {
@@ -59,123 +180,461 @@ public class ArticleController {
     }
 
     /**
-     * Fetch all articles.
+     * Create many articles at once, such as a feed import.
+     * Each article is validated like {@link #createArticle}; valid articles are inserted in batches
+     * and invalid ones are reported without stopping the others.
+     *
+     * @param content A JSON array of articles, or newline-delimited JSON with one article per line.
+     * @return A response entity with the number of created articles and the outcome of each one, in input order.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<CustomResponse<ArticleBulkImportService.Result>> createArticles(InputStream content) {
+        try {
+            ArticleBulkImportService.Result result = articleBulkImportService.importArticles(content);
+            String message = "Created " + result.inserted() + " of " + result.items().size() + " articles.";
+            return new ResponseEntity<>(new CustomResponse<>(message, result, result.failed() == 0),
+                    result.failed() == 0 ? HttpStatus.CREATED : HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new CustomResponse<>("Error creating articles: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Fetch articles one page at a time, newest first.
+     * Pages are keyed on the article ID, so every page costs the same regardless of depth.
+     * Articles are returned as summaries; use {@link #getArticleById(String, String, String, String, WebRequest)} for the full body.
      *
-     * @return A response entity with the list of all articles and a success message.
+     * @param cursor The {@code next} cursor of the previous page, or nothing for the first page.
+     * @param limit  The maximum number of articles to return.
+     * @return A response entity with the page of articles and the cursor of the next page.
      */
     @GetMapping
-    public ResponseEntity<CustomResponse<List<ArticleResponse>>> getAllArticles() {
+    public Mono<ResponseEntity<CustomResponse<CursorPage<ArticleSummaryResponse>>>> getAllArticles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>("Limit must be between 1 and " + MAX_PAGE_SIZE + ".", null, false), HttpStatus.BAD_REQUEST));
+        }
+        ObjectId after;
         try {
-            List<Article> articles = articleRepository.findAll();
-            List<ArticleResponse> articleResponses = new ArrayList<>();
+            after = CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>("Invalid cursor.", null, false), HttpStatus.BAD_REQUEST));
+        }
+        Pageable page = keysetPage(limit);
+        Flux<ArticleSummary> articles = after == null
+                ? reactiveArticleRepository.findSummariesBy(page)
+                : reactiveArticleRepository.findSummariesByIdLessThan(after, page);
+        return toSummaryPage(articles, limit)
+                .map(articlePage -> new ResponseEntity<>(new CustomResponse<>("Articles retrieved successfully.", articlePage, true), HttpStatus.OK))
+                .onErrorResume(e -> Mono.just(new ResponseEntity<>(new CustomResponse<>("Error retrieving articles: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR)));
+    }
 
-            for (Article article : articles) {
-                Object author = userClient.getUserById(article.getAuthorId()).getBody(); // Fetch author details
-                ArticleResponse articleResponse = new ArticleResponse(article, author);
-                articleResponses.add(articleResponse);
+    /**
+     * Fetch the number of articles carrying each tag, most used first.
+     * Counts are kept in memory and never require a database query.
+     *
+     * @param limit The maximum number of tags to return, or 0 for all of them.
+     * @return A response entity with the tag counts.
+     */
+    @GetMapping("/tags")
+    public ResponseEntity<CustomResponse<List<TagIndex.TagCount>>> getTagFacets(@RequestParam(defaultValue = "0") int limit) {
+        return new ResponseEntity<>(new CustomResponse<>("Tags retrieved successfully.", tagIndex.facets(limit), true), HttpStatus.OK);
+    }
+
+    /**
+     * Fetch the articles with the most likes, comments and views recently, highest scoring first.
+     * Rankings are kept in memory and never require a database query.
+     *
+     * @param categoryId The category to rank within, or nothing for all articles.
+     * @param limit      The maximum number of articles to return.
+     * @return A response entity with the trending articles and their scores.
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<CustomResponse<List<TrendingIndex.TrendingArticle>>> getTrendingArticles(
+            @RequestParam(required = false) String categoryId,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > trendingIndex.getTopK()) {
+            return new ResponseEntity<>(new CustomResponse<>("Limit must be between 1 and " + trendingIndex.getTopK() + ".", null, false), HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(new CustomResponse<>("Trending articles retrieved successfully.", trendingIndex.top(categoryId, limit), true), HttpStatus.OK);
+    }
+
+    /**
+     * Fetch the articles carrying a tag one page at a time, newest first.
+     *
+     * @param tag    The tag to filter on.
+     * @param cursor The {@code next} cursor of the previous page, or nothing for the first page.
+     * @param limit  The maximum number of articles to return.
+     * @return A response entity with the page of article summaries and the cursor of the next page.
+     */
+    @GetMapping("/tags/{tag}")
+    public Mono<ResponseEntity<CustomResponse<CursorPage<ArticleSummaryResponse>>>> getArticlesByTag(
+            @PathVariable String tag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>("Limit must be between 1 and " + MAX_PAGE_SIZE + ".", null, false), HttpStatus.BAD_REQUEST));
+        }
+        ObjectId after;
+        try {
+            after = CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>("Invalid cursor.", null, false), HttpStatus.BAD_REQUEST));
+        }
+        Pageable page = keysetPage(limit);
+        Flux<ArticleSummary> articles = after == null
+                ? reactiveArticleRepository.findSummariesByTags(tag, page)
+                : reactiveArticleRepository.findSummariesByTagsAndIdLessThan(tag, after, page);
+        return toSummaryPage(articles, limit)
+                .map(articlePage -> new ResponseEntity<>(new CustomResponse<>("Articles retrieved successfully.", articlePage, true), HttpStatus.OK))
+                .onErrorResume(e -> Mono.just(new ResponseEntity<>(new CustomResponse<>("Error retrieving articles: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR)));
+    }
+
+    /**
+     * Export every article as newline-delimited JSON.
+     * Articles are written to the response as they are read from the database cursor,
+     * so memory use does not depend on the size of the collection. The HTML of each
+     * batch of articles is read from their compressed bodies with one query.
+     *
+     * @return A streaming response with one JSON article per line.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportArticles() {
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<Article> articles = articleRepository.streamAllBy()) {
+                Iterator<Article> iterator = articles.iterator();
+                List<Article> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+                while (iterator.hasNext()) {
+                    batch.add(iterator.next());
+                    if (batch.size() == EXPORT_BATCH_SIZE || !iterator.hasNext()) {
+                        articleBodyService.attachHtml(batch);
+                        for (Article article : batch) {
+                            // Blocking writes hold the cursor back until the client has read the previous lines
+                            outputStream.write(objectMapper.writeValueAsBytes(article));
+                            outputStream.write('\n');
+                        }
+                        batch.clear();
+                    }
+                }
+                outputStream.flush();
             }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 
-            return new ResponseEntity<>(new CustomResponse<>("Articles retrieved successfully.", articleResponses, true), HttpStatus.OK);
-        } catch (Exception e) {
-            return new ResponseEntity<>(new CustomResponse<>("Error retrieving articles: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
+    /**
+     * Full-text search over article titles, content and tags.
+     * Hits are ranked in-process with BM25; only the returned page is read from the database.
+     *
+     * @param q    The words to search for.
+     * @param page The zero-based page of results.
+     * @param size The number of results per page.
+     * @return A response entity with the ranked article summaries and the total number of matches.
+     */
+    @GetMapping("/search")
+    public Mono<ResponseEntity<CustomResponse<SearchPage<ArticleSummaryResponse>>>> searchArticles(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>("Page must be positive and size between 1 and " + MAX_PAGE_SIZE + ".", null, false), HttpStatus.BAD_REQUEST));
         }
+        // Pages past the last int offset are past every hit anyway
+        int offset = (int) Math.min((long) page * size, Integer.MAX_VALUE);
+        return Mono.fromCallable(() -> articleSearchIndex.search(q, offset, size))
+                .flatMap(searchHits -> {
+                    List<String> ids = searchHits.hits().stream().map(ArticleSearchIndex.SearchHit::articleId).toList();
+                    return reactiveArticleRepository.findSummariesByIdIn(ids)
+                            .collectMap(ArticleSummary::getId)
+                            .flatMap(summaries -> reactiveUserClientService.getAuthorsByIds(
+                                            summaries.values().stream().map(ArticleSummary::getAuthorId).toList()) // Fetch all authors at once
+                                    .map(authors -> {
+                                        List<ArticleSummaryResponse> articleResponses = new ArrayList<>();
+                                        for (String id : ids) { // Keep the ranking order
+                                            ArticleSummary summary = summaries.get(id);
+                                            if (summary != null) {
+                                                articleResponses.add(new ArticleSummaryResponse(summary, authors.get(summary.getAuthorId())));
+                                            }
+                                        }
+                                        return new SearchPage<>(articleResponses, page, size, searchHits.total());
+                                    }));
+                })
+                .map(searchPage -> new ResponseEntity<>(new CustomResponse<>("Articles retrieved successfully.", searchPage, true), HttpStatus.OK))
+                .onErrorResume(e -> Mono.just(new ResponseEntity<>(new CustomResponse<>("Error searching articles: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR)));
     }
 
     /**
      * Fetch an article by its ID.
+     * Answers 304 Not Modified when the If-None-Match header still matches, without loading the article.
+     * Likes and comment counts change without touching updatedAt, so only the entity tag is used as a validator here.
+     * The serialized response is cached per entity tag, as is and gzip-compressed, so repeated reads of an
+     * unchanged article are answered with the cached bytes, compressed for clients that accept gzip.
+     * The HTML comes from the stored compressed body. Every read, including those answered with 304, counts as a view.
+     * With {@code fields}, only the listed article fields are read and returned, and the response is not cached.
      *
      * @param id The ID of the article to be fetched.
+     * @param fields The comma-separated article fields to return, or nothing for all of them.
+     * @param readerId The ID of the signed-in reader, set by the gateway.
+     * @param acceptEncoding The content codings the client accepts.
+     * @param webRequest The current request, used to check the conditional headers.
      * @return A response entity with the article details if found, otherwise a not found message.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<CustomResponse<ArticleResponse>> getArticleById(@PathVariable String id) {
+    public ResponseEntity<?> getArticleById(@PathVariable String id,
+                                            @RequestParam(required = false) String fields,
+                                            @RequestHeader(value = "id", required = false) String readerId,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                            WebRequest webRequest) {
         try {
-            Optional<Article> articleOptional = articleRepository.findById(id);
+            FieldProjections.Projection projection = fieldProjections.select(Article.class, fields);
+            Optional<ValidatorOperations.Validator> validator = validatorOperations.forDocument(Article.class, id, "likes", "commentCount", "authorId")
+                    .map(value -> value.with(articleLikeCounter.pending(id)));
+            if (validator.isEmpty()) {
+                return new ResponseEntity<>(new CustomResponse<>("Article not found.", null, false), HttpStatus.NOT_FOUND);
+            }
+            articleViewService.viewed(id, readerId);
+            boolean gzip = projection == null && acceptsGzip(acceptEncoding);
+            String etag = validator.get().etag();
+            if (projection != null) {
+                // Each field list is a representation of its own, with its own entity tag
+                validator = Optional.of(validator.get().with(projection.key()));
+            } else if (gzip) {
+                // So is each encoding, as for the HTML body
+                validator = Optional.of(validator.get().with("gzip"));
+            }
+            if (webRequest.checkNotModified(validator.get().quotedEtag())) {
+                return null; // 304 Not Modified, headers already written
+            }
+            Optional<ArticleResponseCache.Entry> cached = projection == null ? articleResponseCache.get(id, etag) : Optional.empty();
+            if (cached.isPresent()) {
+                return jsonResponse(cached.get(), gzip);
+            }
+            // The author is known from the validator lookup, so it is fetched while the article and its body load
+            String authorId = validator.get().fields().getString("authorId");
+            boolean withHtml = projection == null || projection.includes("htmlContent");
+            List<Object> loaded = fanOut.invokeAll(List.<Callable<?>>of(
+                    () -> projection == null ? articleRepository.findById(id) : fieldProjections.findById(id, Article.class, projection),
+                    () -> userClientService.getAuthorById(authorId), // Fetch author details
+                    () -> withHtml ? articleBodyService.findById(id) : Optional.empty()));
+            @SuppressWarnings("unchecked")
+            Optional<Article> articleOptional = (Optional<Article>) loaded.get(0);
             if (articleOptional.isPresent()) {
                 Article article = articleOptional.get();
-                Object author = userClient.getUserById(article.getAuthorId()).getBody(); // Fetch author details
+                article.setLikes(article.getLikes() + (int) articleLikeCounter.pending(id)); // Include likes not flushed yet
+                ((Optional<?>) loaded.get(2)).map(body -> ArticleBodyService.html((ArticleBody) body)).ifPresent(article::setHtmlContent);
+                Object author = loaded.get(1);
                 ArticleResponse articleResponse = new ArticleResponse(article, author);
-                return new ResponseEntity<>(new CustomResponse<>("Article retrieved successfully.", articleResponse, true), HttpStatus.OK);
+                if (projection != null) {
+                    return new ResponseEntity<>(new CustomResponse<>("Article retrieved successfully.", articleResponse, true), HttpStatus.OK);
+                }
+                byte[] json = objectMapper.writeValueAsBytes(
+                        new CustomResponse<>("Article retrieved successfully.", articleResponse, true));
+                ArticleResponseCache.Entry entry = articleResponseCache.put(id, etag, article.getAuthorId(), json);
+                return jsonResponse(entry, gzip);
             } else {
                 return new ResponseEntity<>(new CustomResponse<>("Article not found.", null, false), HttpStatus.NOT_FOUND);
             }
+        } catch (FieldProjections.InvalidFieldsException e) {
+            return new ResponseEntity<>(new CustomResponse<>(e.getMessage(), null, false), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(new CustomResponse<>("Error retrieving article: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     /**
-     * Fetch articles by their Author ID.
+     * Fetch the view, unique reader, like and comment counts of an article.
+     * Views and likes not written to the database yet are included; unique readers are estimated.
      *
-     * @param authorId The ID of the Author whose articles are to be fetched.
-     * @return A response entity with the article details if found, otherwise a not found message.
+     * @param id The ID of the article whose counts are to be fetched.
+     * @return A response entity with the counts if the article is found, otherwise a not found message.
      */
-    @GetMapping("/author/{authorId}")
-    public ResponseEntity<CustomResponse<List<ArticleResponse>>> getArticlesByAuthorId(@PathVariable String authorId) {
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<CustomResponse<ArticleViewService.ArticleStats>> getArticleStats(@PathVariable String id) {
         try {
-            Optional<List<Article>> articlesOptional = articleRepository.findByAuthorId(authorId);
-            if (articlesOptional.isPresent()) {
-                List<Article> articles = articlesOptional.get();
-                Object author = userClient.getUserById(authorId).getBody(); // Fetch author details once
-                List<ArticleResponse> articleResponses = new ArrayList<>();
-                for (Article article : articles) {
-                    ArticleResponse articleResponse = new ArticleResponse(article, author);
-                    articleResponses.add(articleResponse);
-                }
-                return new ResponseEntity<>(new CustomResponse<>("Articles retrieved successfully.", articleResponses, true), HttpStatus.OK);
+            Optional<ArticleViewService.ArticleStats> stats = articleViewService.stats(id);
+            if (stats.isPresent()) {
+                return new ResponseEntity<>(new CustomResponse<>("Article stats retrieved successfully.", stats.get(), true), HttpStatus.OK);
             } else {
-                return new ResponseEntity<>(new CustomResponse<>("Articles not found.", null, false), HttpStatus.NOT_FOUND);
+                return new ResponseEntity<>(new CustomResponse<>("Article not found.", null, false), HttpStatus.NOT_FOUND);
             }
         } catch (Exception e) {
-            return new ResponseEntity<>(new CustomResponse<>("Error retrieving articles: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
+            return new ResponseEntity<>(new CustomResponse<>("Error retrieving article stats: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Fetch the HTML body of an article.
+     * The body is compressed once when the article is written; clients that accept gzip
+     * receive the stored bytes as-is, others receive them inflated.
+     *
+     * @param id The ID of the article whose body is to be fetched.
+     * @param acceptEncoding The content codings the client accepts.
+     * @param webRequest The current request, used to check the conditional headers.
+     * @return A response entity with the HTML body if found, otherwise a not found message.
+     */
+    @GetMapping("/{id}/html")
+    public ResponseEntity<?> getArticleHtml(@PathVariable String id,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                            WebRequest webRequest) {
+        try {
+            Optional<ArticleBody> bodyOptional = articleBodyService.findById(id);
+            if (bodyOptional.isEmpty()) {
+                return new ResponseEntity<>(new CustomResponse<>("Article not found.", null, false), HttpStatus.NOT_FOUND);
+            }
+            ArticleBody body = bodyOptional.get();
+            boolean gzip = acceptsGzip(acceptEncoding);
+            // Each encoding is a different representation, so each gets its own strong entity tag
+            String etag = "\"" + body.getHash() + (gzip ? "-gzip" : "") + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return null; // 304 Not Modified, headers already written
+            }
+            byte[] bytes = gzip ? body.getGzipHtml() : ArticleBodyService.decompress(body);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .contentLength(bytes.length);
+            if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return response.body(bytes);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new CustomResponse<>("Error retrieving article body: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Fetch articles by their Author ID.
+     *
+     * @param authorId The ID of the Author whose articles are to be fetched.
+     * @return A response entity with summaries of the author's articles.
+     */
+    @GetMapping("/author/{authorId}")
+    public Mono<ResponseEntity<CustomResponse<List<ArticleSummaryResponse>>>> getArticlesByAuthorId(@PathVariable String authorId) {
+        // The author lookup and the query run at the same time
+        return Mono.zip(reactiveArticleRepository.findSummariesByAuthorId(authorId).collectList(),
+                        reactiveUserClientService.getAuthorsByIds(List.of(authorId))) // Fetch author details once
+                .map(results -> {
+                    Object author = results.getT2().get(authorId);
+                    List<ArticleSummaryResponse> articleResponses = new ArrayList<>();
+                    for (ArticleSummary article : results.getT1()) {
+                        ArticleSummaryResponse articleResponse = new ArticleSummaryResponse(article, author);
+                        articleResponses.add(articleResponse);
+                    }
+                    return new ResponseEntity<>(new CustomResponse<>("Articles retrieved successfully.", articleResponses, true), HttpStatus.OK);
+                })
+                .onErrorResume(e -> Mono.just(new ResponseEntity<>(new CustomResponse<>("Error retrieving articles: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR)));
+    }
+
     /**
      * Update an existing article's attributes based on the request body.
      * Only the fields included in the request body will be updated.
+     * Likes are not updated here; use the like endpoints instead. Comment counts follow the comments,
+     * and the category follows the subcategory.
+     * When the request body carries a version, the update only applies if the article is still at that version.
      *
      * @param id The ID of the article to be updated.
      * @param articleDetails The updated article details.
-     * @return A response entity indicating whether the update was successful or the article was not found.
+     * @return A response entity indicating whether the update was successful, the article was not found
+     * or it was changed since the given version.
      */
     @PutMapping("/{id}")
     public ResponseEntity<CustomResponse<ArticleResponse>> updateArticle(@PathVariable String id, @RequestBody Article articleDetails) {
         try {
-            Optional<Article> articleOptional = articleRepository.findById(id);
+            articleDetails.setExcerpt(ArticleSummary.excerptOf(articleDetails.getContent()));
+            articleDetails.setCategoryId(null);
+            if (articleDetails.getSubCategoryId() != null) {
+                Optional<SubCategorySummary> subCategory = subCategoryRepository.findSummaryById(articleDetails.getSubCategoryId());
+                if (subCategory.isEmpty()) {
+                    return new ResponseEntity<>(new CustomResponse<>("SubCategory not found.", null, false), HttpStatus.NOT_FOUND);
+                }
+                articleDetails.setCategoryId(subCategory.get().getParentCategoryId());
+            }
+            String html = articleDetails.getHtmlContent();
+            Optional<ArticleBody> previousBody = Optional.empty();
+            if (html != null) {
+                // The body is written before the version bump: a read in between serves the new HTML under
+                // the old entity tag, which the bump replaces, instead of caching the old HTML under the new one
+                previousBody = articleBodyService.findById(id);
+                articleBodyService.save(id, html);
+            }
+            Optional<Article> articleOptional = Optional.empty();
+            try {
+                articleOptional = partialUpdateOperations.update(
+                        id, articleDetails, Article.class, articleDetails.getVersion(), "likes", "commentCount", "lastCommentAt", "views");
+            } finally {
+                if (html != null && articleOptional.isEmpty()) {
+                    articleBodyService.restore(id, previousBody); // The update did not apply, so neither does the HTML
+                }
+                // After every write, so no response read in between stays cached
+                articleResponseCache.invalidate(id);
+            }
             if (articleOptional.isPresent()) {
-                Article article = articleOptional.get();
-                if (articleDetails.getTitle() != null) article.setTitle(articleDetails.getTitle());
-                if (articleDetails.getContent() != null) article.setContent(articleDetails.getContent());
-                if (articleDetails.getAuthorId() != null) article.setAuthorId(articleDetails.getAuthorId());
-                if (articleDetails.getTags() != null) article.setTags(articleDetails.getTags());
-                if (articleDetails.getStatus() != null) article.setStatus(articleDetails.getStatus());
-                if (articleDetails.getLikes() >= 0) article.setLikes(articleDetails.getLikes());
-                Article updatedArticle = articleRepository.save(article);
-                Object author = userClient.getUserById(updatedArticle.getAuthorId()).getBody(); // Fetch author details
+                Article updatedArticle = articleOptional.get();
+                if (articleDetails.getTitle() != null) {
+                    articleRefOperations.titleChanged(id, updatedArticle.getTitle());
+                }
+                if (html != null) {
+                    updatedArticle.setHtmlContent(html);
+                } else {
+                    articleBodyService.findById(id).map(ArticleBodyService::html).ifPresent(updatedArticle::setHtmlContent);
+                }
+                articleSearchIndex.index(updatedArticle);
+                tagIndex.index(updatedArticle);
+                trendingIndex.articleChanged(updatedArticle);
+                Object author = userClientService.getAuthorById(updatedArticle.getAuthorId()); // Fetch author details
                 ArticleResponse articleResponse = new ArticleResponse(updatedArticle, author);
                 return new ResponseEntity<>(new CustomResponse<>("Article updated successfully.", articleResponse, true), HttpStatus.OK);
             } else {
                 return new ResponseEntity<>(new CustomResponse<>("Article not found.", null, false), HttpStatus.NOT_FOUND);
             }
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(new CustomResponse<>("Article was modified by another request.", null, false), HttpStatus.CONFLICT);
         } catch (Exception e) {
             return new ResponseEntity<>(new CustomResponse<>("Error updating article: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Like an article. The like is buffered and written to the database in the next batch.
+     *
+     * @param id The ID of the article to be liked.
+     * @return A response entity indicating whether the like was recorded or the article was not found.
+     */
+    @PostMapping("/{id}/like")
+    public ResponseEntity<CustomResponse<Void>> likeArticle(@PathVariable String id) {
+        return recordLike(id, 1, "Article liked successfully.");
+    }
+
+    /**
+     * Remove a like from an article. The change is buffered and written to the database in the next batch.
+     *
+     * @param id The ID of the article to be unliked.
+     * @return A response entity indicating whether the unlike was recorded or the article was not found.
+     */
+    @DeleteMapping("/{id}/like")
+    public ResponseEntity<CustomResponse<Void>> unlikeArticle(@PathVariable String id) {
+        return recordLike(id, -1, "Article unliked successfully.");
+    }
+
     /**
      * Delete an article by its ID.
+     * The article is deleted at once; its comments and images are deleted in the background.
      *
      * @param id The ID of the article to be deleted.
-     * @return A response entity indicating whether the deletion was successful or the article was not found.
+     * @return A response entity with the job deleting the article's comments and images, or a not found message.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<CustomResponse<Void>> deleteArticle(@PathVariable String id) {
+    public ResponseEntity<CustomResponse<CascadeJob>> deleteArticle(@PathVariable String id) {
         try {
             Optional<Article> articleOptional = articleRepository.findById(id);
             if (articleOptional.isPresent()) {
                 articleRepository.deleteById(id);
-                return new ResponseEntity<>(new CustomResponse<>("Article deleted successfully.", null, true), HttpStatus.OK);
+                articleBodyService.deleteById(id);
+                articleResponseCache.invalidate(id);
+                articleSearchIndex.remove(id);
+                tagIndex.remove(id);
+                trendingIndex.remove(id);
+                CascadeJob job = cascadeDeleteService.enqueue(CascadeJob.Type.ARTICLE, id);
+                return new ResponseEntity<>(new CustomResponse<>("Article deleted successfully. Its comments and images are being deleted.", job, true), HttpStatus.ACCEPTED);
             } else {
                 return new ResponseEntity<>(new CustomResponse<>("Article not found.", null, false), HttpStatus.NOT_FOUND);
             }
@@ -183,4 +642,76 @@ public class ArticleController {
             return new ResponseEntity<>(new CustomResponse<>("Error deleting article: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    // A cached article response, sent compressed to clients that accept gzip and as is to the others
+    private static ResponseEntity<byte[]> jsonResponse(ArticleResponseCache.Entry entry, boolean gzip) {
+        byte[] bytes = gzip ? entry.gzipJson() : entry.json();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentLength(bytes.length);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(bytes);
+    }
+
+    // True if the Accept-Encoding header gives gzip a non-zero quality, by name or else through "*"
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (parts[0].trim().equalsIgnoreCase("gzip")) gzipQuality = quality;
+            else if (parts[0].trim().equals("*")) anyQuality = quality;
+        }
+        double quality = gzipQuality != null ? gzipQuality : anyQuality != null ? anyQuality : 0;
+        return quality > 0;
+    }
+
+    // Fetch one extra article to know whether another page exists
+    private static Pageable keysetPage(int limit) {
+        return PageRequest.of(0, limit + 1, Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    // Trim a keyset page fetched with keysetPage(limit) and attach the authors without blocking
+    private Mono<CursorPage<ArticleSummaryResponse>> toSummaryPage(Flux<ArticleSummary> page, int limit) {
+        return page.collectList().flatMap(fetched -> {
+            boolean hasMore = fetched.size() > limit;
+            List<ArticleSummary> articles = hasMore ? fetched.subList(0, limit) : fetched;
+            return reactiveUserClientService.getAuthorsByIds(
+                    articles.stream().map(ArticleSummary::getAuthorId).toList()) // Fetch all authors at once
+                    .map(authors -> {
+                        List<ArticleSummaryResponse> articleResponses = new ArrayList<>();
+                        for (ArticleSummary article : articles) {
+                            articleResponses.add(new ArticleSummaryResponse(article, authors.get(article.getAuthorId())));
+                        }
+                        String next = hasMore ? CursorPage.encodeCursor(articles.get(articles.size() - 1).getId()) : null;
+                        return new CursorPage<>(articleResponses, next);
+                    });
+        });
+    }
+
+    private ResponseEntity<CustomResponse<Void>> recordLike(String id, int delta, String message) {
+        try {
+            if (!articleRepository.existsById(id)) {
+                return new ResponseEntity<>(new CustomResponse<>("Article not found.", null, false), HttpStatus.NOT_FOUND);
+            }
+            articleLikeCounter.add(id, delta);
+            trendingIndex.liked(id, delta);
+            return new ResponseEntity<>(new CustomResponse<>(message, null, true), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new CustomResponse<>("Error updating likes: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 }
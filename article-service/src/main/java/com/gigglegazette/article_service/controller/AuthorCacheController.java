@@ -0,0 +1,60 @@
+package com.gigglegazette.article_service.controller;
+
+import com.gigglegazette.article_service.client.CachingUserClient;
+import com.gigglegazette.article_service.model.CascadeJob;
+import com.gigglegazette.article_service.service.ArticleResponseCache;
+import com.gigglegazette.article_service.service.CascadeDeleteService;
+import com.gigglegazette.article_service.util.CustomResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Internal endpoints called by user-service when an author changes.
+ * Not routed through the API gateway; callers must send the shared secret,
+ * see {@link com.gigglegazette.article_service.config.InternalEndpointConfig}.
+ */
+@RestController
+@RequestMapping("/authors")
+public class AuthorCacheController {
+
+    @Autowired
+    private CachingUserClient userClient;
+
+    @Autowired
+    private ArticleResponseCache articleResponseCache;
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
+    /**
+     * Evict an author from the in-process author cache, along with the cached
+     * article responses that embed the author.
+     *
+     * @param id The ID of the author that was updated or deleted.
+     * @return A response entity confirming the eviction.
+     */
+    @DeleteMapping("/{id}/cache")
+    public ResponseEntity<CustomResponse<Void>> evictAuthor(@PathVariable String id) {
+        userClient.invalidate(id);
+        articleResponseCache.invalidateAuthor(id);
+        return new ResponseEntity<>(new CustomResponse<>("Author evicted from cache.", null, true), HttpStatus.OK);
+    }
+
+    /**
+     * Delete the articles and comments of a deleted author in the background.
+     *
+     * @param id The ID of the deleted author.
+     * @return A response entity with the job deleting the author's content.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<CustomResponse<CascadeJob>> deleteAuthorContent(@PathVariable String id) {
+        try {
+            CascadeJob job = cascadeDeleteService.enqueue(CascadeJob.Type.AUTHOR, id);
+            return new ResponseEntity<>(new CustomResponse<>("The author's articles and comments are being deleted.", job, true), HttpStatus.ACCEPTED);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new CustomResponse<>("Error deleting the author's content: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.gigglegazette.article_service.controller;
+
+import com.gigglegazette.article_service.model.CascadeJob;
+import com.gigglegazette.article_service.service.CascadeDeleteService;
+import com.gigglegazette.article_service.util.CustomResponse;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/cascades")
+public class CascadeJobController {
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
+    /**
+     * Fetch the progress of a background deletion started by deleting an article, category or author.
+     *
+     * @param id The ID of the job, as returned by the delete request.
+     * @return A response entity with the job's status and the documents deleted so far, otherwise a not found message.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<CustomResponse<CascadeJob>> getCascadeJobById(@PathVariable String id) {
+        try {
+            Optional<CascadeJob> job = ObjectId.isValid(id) ? cascadeDeleteService.findById(id) : Optional.empty();
+            return job.map(value -> new ResponseEntity<>(new CustomResponse<>("Job retrieved successfully.", value, true), HttpStatus.OK))
+                    .orElseGet(() -> new ResponseEntity<>(new CustomResponse<>("Job not found.", null, false), HttpStatus.NOT_FOUND));
+        } catch (Exception e) {
+            return new ResponseEntity<>(new CustomResponse<>("Error retrieving job: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
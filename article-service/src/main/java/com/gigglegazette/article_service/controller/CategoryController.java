@@ -1,15 +1,21 @@
 package com.gigglegazette.article_service.controller;
 
+import com.gigglegazette.article_service.model.CascadeJob;
 import com.gigglegazette.article_service.model.Category;
 import com.gigglegazette.article_service.repository.CategoryRepository;
+import com.gigglegazette.article_service.repository.PartialUpdateOperations;
+import com.gigglegazette.article_service.repository.ValidatorOperations;
+import com.gigglegazette.article_service.service.CascadeDeleteService;
 import com.gigglegazette.article_service.util.CustomResponse;
 import jakarta.validation.Valid;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -21,6 +27,15 @@ public class CategoryController {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private PartialUpdateOperations partialUpdateOperations;
+
+    @Autowired
+    private ValidatorOperations validatorOperations;
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
     /**
      * Create a new category.
      *
@@ -53,12 +68,18 @@ public class CategoryController {
 
     /**
      * Fetch all categories.
+     * Answers 304 Not Modified when no category was added, changed or removed since the client's copy.
      *
+     * @param webRequest The current request, used to check the conditional headers.
      * @return A response entity with the list of all categories and a success message.
      */
     @GetMapping
-    public ResponseEntity<CustomResponse<List<Category>>> getAllCategories() {
+    public ResponseEntity<CustomResponse<List<Category>>> getAllCategories(WebRequest webRequest) {
         try {
+            ValidatorOperations.Validator validator = validatorOperations.forQuery(Category.class, new Document());
+            if (webRequest.checkNotModified(validator.quotedEtag(), validator.lastModified())) {
+                return null; // 304 Not Modified, headers already written
+            }
             List<Category> categories = categoryRepository.findAll();
             return new ResponseEntity<>(new CustomResponse<>("Categories retrieved successfully.", categories, true), HttpStatus.OK);
         } catch (Exception e) {
@@ -93,13 +114,9 @@ public class CategoryController {
     @PutMapping("/{id}")
     public ResponseEntity<CustomResponse<Category>> updateCategory(@PathVariable String id, @RequestBody Category categoryDetails) {
         try {
-            Optional<Category> categoryOptional = categoryRepository.findById(id);
+            Optional<Category> categoryOptional = partialUpdateOperations.update(id, categoryDetails, Category.class);
             if (categoryOptional.isPresent()) {
-                Category category = categoryOptional.get();
-                if (categoryDetails.getName() != null) category.setName(categoryDetails.getName());
-                if (categoryDetails.getDescription() != null) category.setDescription(categoryDetails.getDescription());
-                Category updatedCategory = categoryRepository.save(category);
-                return new ResponseEntity<>(new CustomResponse<>("Category updated successfully.", updatedCategory, true), HttpStatus.OK);
+                return new ResponseEntity<>(new CustomResponse<>("Category updated successfully.", categoryOptional.get(), true), HttpStatus.OK);
             } else {
                 return new ResponseEntity<>(new CustomResponse<>("Category not found.", null, false), HttpStatus.NOT_FOUND);
             }
@@ -110,17 +127,20 @@ public class CategoryController {
 
     /**
      * Delete a category by its ID.
+     * The category is deleted at once; its subcategories are deleted in the background,
+     * keeping their articles.
      *
      * @param id The ID of the category to be deleted.
-     * @return A response entity indicating whether the deletion was successful or the category was not found.
+     * @return A response entity with the job deleting the category's subcategories, or a not found message.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<CustomResponse<Void>> deleteCategory(@PathVariable String id) {
+    public ResponseEntity<CustomResponse<CascadeJob>> deleteCategory(@PathVariable String id) {
         try {
             Optional<Category> categoryOptional = categoryRepository.findById(id);
             if (categoryOptional.isPresent()) {
                 categoryRepository.deleteById(id);
-                return new ResponseEntity<>(new CustomResponse<>("Category deleted successfully.", null, true), HttpStatus.OK);
+                CascadeJob job = cascadeDeleteService.enqueue(CascadeJob.Type.CATEGORY, id);
+                return new ResponseEntity<>(new CustomResponse<>("Category deleted successfully. Its subcategories are being deleted.", job, true), HttpStatus.ACCEPTED);
             } else {
                 return new ResponseEntity<>(new CustomResponse<>("Category not found.", null, false), HttpStatus.NOT_FOUND);
             }
@@ -1,17 +1,39 @@
 package com.gigglegazette.article_service.controller;
 
-import com.gigglegazette.article_service.client.UserClient;
+import com.gigglegazette.article_service.model.ArticleRef;
 import com.gigglegazette.article_service.model.Comment;
+import com.gigglegazette.article_service.repository.ArticleRepository;
+import com.gigglegazette.article_service.repository.CommentCountOperations;
 import com.gigglegazette.article_service.repository.CommentRepository;
+import com.gigglegazette.article_service.repository.FieldProjections;
+import com.gigglegazette.article_service.repository.PartialUpdateOperations;
+import com.gigglegazette.article_service.repository.ReactiveCommentRepository;
+import com.gigglegazette.article_service.repository.ValidatorOperations;
+import com.gigglegazette.article_service.search.TrendingIndex;
+import com.gigglegazette.article_service.service.FanOut;
+import com.gigglegazette.article_service.service.ReactiveUserClientService;
+import com.gigglegazette.article_service.service.UserClientService;
 import com.gigglegazette.article_service.util.CommentResponse;
+import com.gigglegazette.article_service.util.CursorPage;
 import com.gigglegazette.article_service.util.CustomResponse;
 import jakarta.validation.Valid;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -24,7 +46,37 @@ public class CommentController {
     private CommentRepository commentRepository;
 
     @Autowired
-    private UserClient userClient;
+    private ReactiveCommentRepository reactiveCommentRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private PartialUpdateOperations partialUpdateOperations;
+
+    @Autowired
+    private CommentCountOperations commentCountOperations;
+
+    @Autowired
+    private ValidatorOperations validatorOperations;
+
+    @Autowired
+    private UserClientService userClientService;
+
+    @Autowired
+    private ReactiveUserClientService reactiveUserClientService;
+
+    @Autowired
+    private FanOut fanOut;
+
+    @Autowired
+    private TrendingIndex trendingIndex;
+
+    @Autowired
+    private FieldProjections fieldProjections;
 
     /**
      * Create a new comment.
@@ -49,10 +101,17 @@ public class CommentController {
             );
         }
         try {
+            Optional<ArticleRef> articleRef = articleRepository.findRefById(comment.getArticle().getId());
+            if (articleRef.isEmpty()) {
+                return new ResponseEntity<>(new CustomResponse<>("Article not found.", null, false), HttpStatus.NOT_FOUND);
+            }
+            comment.setArticle(articleRef.get());
             comment.setCreatedAt(LocalDateTime.now());
             comment.setUpdatedAt(LocalDateTime.now());
             Comment savedComment = commentRepository.save(comment);
-            Object author = userClient.getUserById(savedComment.getAuthorId()).getBody(); // Fetch author details
+            commentCountOperations.commentAdded(savedComment.getArticle().getId(), savedComment.getCreatedAt());
+            trendingIndex.commented(savedComment.getArticle().getId());
+            Object author = userClientService.getAuthorById(savedComment.getAuthorId()); // Fetch author details
             CommentResponse commentResponse = new CommentResponse(savedComment, author);
             return new ResponseEntity<>(new CustomResponse<>("Comment created successfully.", commentResponse, true), HttpStatus.CREATED);
         } catch (Exception e) {
@@ -61,25 +120,52 @@ public class CommentController {
     }
 
     /**
-     * Fetch all comments.
+     * Fetch all comments one page at a time, newest first.
      *
-     * @return A response entity with the list of all comments and a success message.
+     * @param cursor The {@code next} cursor of the previous page, or nothing for the first page.
+     * @param limit The maximum number of comments to return.
+     * @param fields The comma-separated comment fields to return, or nothing for all of them.
+     * @return A response entity with the page of comments and the cursor of the next page.
      */
     @GetMapping
-    public ResponseEntity<CustomResponse<List<CommentResponse>>> getAllComments() {
+    public Mono<ResponseEntity<CustomResponse<CursorPage<CommentResponse>>>> getAllComments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ArticleController.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields) {
+        if (limit < 1 || limit > ArticleController.MAX_PAGE_SIZE) {
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>("Limit must be between 1 and " + ArticleController.MAX_PAGE_SIZE + ".", null, false), HttpStatus.BAD_REQUEST));
+        }
+        ObjectId after;
         try {
-            List<Comment> comments = commentRepository.findAll();
-            List<CommentResponse> commentResponses = new ArrayList<>();
-
-            for (Comment comment : comments) {
-                Object author = userClient.getUserById(comment.getAuthorId()).getBody(); // Fetch author details
-                CommentResponse commentResponse = new CommentResponse(comment, author);
-                commentResponses.add(commentResponse);
+            after = CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>("Invalid cursor.", null, false), HttpStatus.BAD_REQUEST));
+        }
+        try {
+            FieldProjections.Projection projection = fieldProjections.select(Comment.class, fields, "authorId");
+            Pageable page = keysetPage(limit);
+            Flux<Comment> comments;
+            if (projection == null) {
+                comments = after == null
+                        ? reactiveCommentRepository.findBy(page)
+                        : reactiveCommentRepository.findByIdLessThan(after, page);
+            } else {
+                Query query = after == null ? new Query() : new Query(Criteria.where("_id").lt(after));
+                comments = reactiveMongoTemplate.find(projection.applyTo(query.with(page)), Comment.class);
             }
-
-            return new ResponseEntity<>(new CustomResponse<>("Comments retrieved successfully.", commentResponses, true), HttpStatus.OK);
+            return comments.collectList()
+                    .flatMap(loaded -> {
+                        boolean hasMore = loaded.size() > limit;
+                        List<Comment> pageComments = hasMore ? loaded.subList(0, limit) : loaded;
+                        return withAuthors(pageComments)
+                                .map(commentResponses -> new CursorPage<>(commentResponses, nextCursor(pageComments, hasMore)));
+                    })
+                    .map(commentPage -> new ResponseEntity<>(new CustomResponse<>("Comments retrieved successfully.", commentPage, true), HttpStatus.OK))
+                    .onErrorResume(e -> Mono.just(new ResponseEntity<>(new CustomResponse<>("Error retrieving comments: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR)));
+        } catch (FieldProjections.InvalidFieldsException e) {
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>(e.getMessage(), null, false), HttpStatus.BAD_REQUEST));
         } catch (Exception e) {
-            return new ResponseEntity<>(new CustomResponse<>("Error retrieving comments: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>("Error retrieving comments: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR));
         }
     }
 
@@ -87,20 +173,26 @@ public class CommentController {
      * Fetch a comment by its ID.
      *
      * @param id The ID of the comment to be fetched.
+     * @param fields The comma-separated comment fields to return, or nothing for all of them.
      * @return A response entity with the comment details if found, otherwise a not found message.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<CustomResponse<CommentResponse>> getCommentById(@PathVariable String id) {
+    public ResponseEntity<CustomResponse<CommentResponse>> getCommentById(@PathVariable String id, @RequestParam(required = false) String fields) {
         try {
-            Optional<Comment> commentOptional = commentRepository.findById(id);
+            FieldProjections.Projection projection = fieldProjections.select(Comment.class, fields, "authorId");
+            Optional<Comment> commentOptional = projection == null
+                    ? commentRepository.findById(id)
+                    : fieldProjections.findById(id, Comment.class, projection);
             if (commentOptional.isPresent()) {
                 Comment comment = commentOptional.get();
-                Object author = userClient.getUserById(comment.getAuthorId()).getBody(); // Fetch author details
+                Object author = userClientService.getAuthorById(comment.getAuthorId()); // Fetch author details
                 CommentResponse commentResponse = new CommentResponse(comment, author);
                 return new ResponseEntity<>(new CustomResponse<>("Comment retrieved successfully.", commentResponse, true), HttpStatus.OK);
             } else {
                 return new ResponseEntity<>(new CustomResponse<>("Comment not found.", null, false), HttpStatus.NOT_FOUND);
             }
+        } catch (FieldProjections.InvalidFieldsException e) {
+            return new ResponseEntity<>(new CustomResponse<>(e.getMessage(), null, false), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(new CustomResponse<>("Error retrieving comment: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -109,6 +201,7 @@ public class CommentController {
     /**
      * Update an existing comment's attributes based on the request body.
      * Only the fields included in the request body will be updated.
+     * A comment cannot be moved to another article.
      *
      * @param id             The ID of the comment to be updated.
      * @param commentDetails The updated comment details.
@@ -117,14 +210,10 @@ public class CommentController {
     @PutMapping("/{id}")
     public ResponseEntity<CustomResponse<CommentResponse>> updateComment(@PathVariable String id, @RequestBody Comment commentDetails) {
         try {
-            Optional<Comment> commentOptional = commentRepository.findById(id);
+            Optional<Comment> commentOptional = partialUpdateOperations.update(id, commentDetails, Comment.class, "article");
             if (commentOptional.isPresent()) {
-                Comment comment = commentOptional.get();
-                if (commentDetails.getArticle() != null) comment.setArticle(commentDetails.getArticle());
-                if (commentDetails.getAuthorId() != null) comment.setAuthorId(commentDetails.getAuthorId());
-                if (commentDetails.getContent() != null) comment.setContent(commentDetails.getContent());
-                Comment updatedComment = commentRepository.save(comment);
-                Object author = userClient.getUserById(updatedComment.getAuthorId()).getBody(); // Fetch author details
+                Comment updatedComment = commentOptional.get();
+                Object author = userClientService.getAuthorById(updatedComment.getAuthorId()); // Fetch author details
                 CommentResponse commentResponse = new CommentResponse(updatedComment, author);
                 return new ResponseEntity<>(new CustomResponse<>("Comment updated successfully.", commentResponse, true), HttpStatus.OK);
             } else {
@@ -146,7 +235,13 @@ public class CommentController {
         try {
             Optional<Comment> commentOptional = commentRepository.findById(id);
             if (commentOptional.isPresent()) {
-                commentRepository.deleteById(id);
+                Comment comment = commentOptional.get();
+                ArticleRef article = comment.getArticle();
+                // Only the request that actually removed the comment updates the count
+                if (commentRepository.removeById(id) > 0 && article != null) {
+                    commentCountOperations.commentRemoved(article.getId());
+                    trendingIndex.uncommented(article.getId(), comment.getCreatedAt());
+                }
                 return new ResponseEntity<>(new CustomResponse<>("Comment deleted successfully.", null, true), HttpStatus.OK);
             } else {
                 return new ResponseEntity<>(new CustomResponse<>("Comment not found.", null, false), HttpStatus.NOT_FOUND);
@@ -157,59 +252,136 @@ public class CommentController {
     }
 
     /**
-     * Fetch all comments for a specific article.
+     * Fetch the comments of a specific article one page at a time, newest first.
+     * Answers 304 Not Modified when no comment of the article was added, changed or removed since the client's copy.
+     * The total number of comments is available on the article itself as {@code commentCount}.
      *
      * @param articleId The ID of the article for which comments are to be retrieved.
-     * @return A response entity with the list of comments for the specified article.
+     * @param cursor The {@code next} cursor of the previous page, or nothing for the first page.
+     * @param limit The maximum number of comments to return.
+     * @param fields The comma-separated comment fields to return, or nothing for all of them.
+     * @param webRequest The current request, used to check the conditional headers.
+     * @return A response entity with the page of comments and the cursor of the next page.
      */
     @GetMapping("/article/{articleId}")
-    public ResponseEntity<CustomResponse<List<CommentResponse>>> getCommentsByArticleId(@PathVariable String articleId) {
+    public Mono<ResponseEntity<CustomResponse<CursorPage<CommentResponse>>>> getCommentsByArticleId(
+            @PathVariable String articleId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ArticleController.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        if (limit < 1 || limit > ArticleController.MAX_PAGE_SIZE) {
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>("Limit must be between 1 and " + ArticleController.MAX_PAGE_SIZE + ".", null, false), HttpStatus.BAD_REQUEST));
+        }
+        ObjectId after;
         try {
-            List<Comment> comments = commentRepository.findByArticle_Id(articleId);
-            List<CommentResponse> commentResponses = new ArrayList<>();
-
-            for (Comment comment : comments) {
-                Object author = userClient.getUserById(comment.getAuthorId()).getBody(); // Fetch author details
-                CommentResponse commentResponse = new CommentResponse(comment, author);
-                commentResponses.add(commentResponse);
+            after = CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>("Invalid cursor.", null, false), HttpStatus.BAD_REQUEST));
+        }
+        try {
+            FieldProjections.Projection projection = fieldProjections.select(Comment.class, fields, "authorId");
+            if (ObjectId.isValid(articleId)) {
+                ValidatorOperations.Validator validator = validatorOperations.forQuery(
+                        Comment.class, new Document("article._id", new ObjectId(articleId)));
+                if (projection != null) validator = validator.with(projection.key());
+                if (webRequest.checkNotModified(validator.quotedEtag(), validator.lastModified())) {
+                    return null; // 304 Not Modified, headers already written
+                }
             }
-
-            return new ResponseEntity<>(new CustomResponse<>("Comments for the article retrieved successfully.", commentResponses, true), HttpStatus.OK);
+            Pageable page = keysetPage(limit);
+            List<Comment> comments;
+            if (projection == null) {
+                comments = after == null
+                        ? commentRepository.findByArticle_Id(articleId, page)
+                        : commentRepository.findByArticle_IdAndIdLessThan(articleId, after, page);
+            } else {
+                Criteria criteria = Criteria.where("article._id").is(articleId);
+                if (after != null) criteria = criteria.and("_id").lt(after);
+                comments = fieldProjections.find(new Query(criteria).with(page), Comment.class, projection);
+            }
+            boolean hasMore = comments.size() > limit;
+            List<Comment> pageComments = hasMore ? comments.subList(0, limit) : comments;
+            return withAuthors(pageComments)
+                    .map(commentResponses -> new CursorPage<>(commentResponses, nextCursor(pageComments, hasMore)))
+                    .map(commentPage -> new ResponseEntity<>(new CustomResponse<>("Comments for the article retrieved successfully.", commentPage, true), HttpStatus.OK))
+                    .onErrorResume(e -> Mono.just(new ResponseEntity<>(new CustomResponse<>("Error retrieving comments for article: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR)));
+        } catch (FieldProjections.InvalidFieldsException e) {
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>(e.getMessage(), null, false), HttpStatus.BAD_REQUEST));
         } catch (Exception e) {
-            return new ResponseEntity<>(new CustomResponse<>("Error retrieving comments for article: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>("Error retrieving comments for article: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR));
         }
     }
 
     /**
-     * Fetch Comments by their Author ID.
+     * Fetch Comments by their Author ID one page at a time, newest first.
      *
      * @param authorId The ID of the Author whose comments are to be fetched.
-     * @return A response entity with the article details if found, otherwise a not found message.
+     * @param cursor The {@code next} cursor of the previous page, or nothing for the first page.
+     * @param limit The maximum number of comments to return.
+     * @return A response entity with the page of comments and the cursor of the next page.
      */
     @GetMapping("/author/{authorId}")
-    public ResponseEntity<CustomResponse<List<CommentResponse>>> getArticlesByAuthorId(@PathVariable String authorId) {
+    public ResponseEntity<CustomResponse<CursorPage<CommentResponse>>> getArticlesByAuthorId(
+            @PathVariable String authorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ArticleController.DEFAULT_PAGE_SIZE) int limit) {
+        if (limit < 1 || limit > ArticleController.MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(new CustomResponse<>("Limit must be between 1 and " + ArticleController.MAX_PAGE_SIZE + ".", null, false), HttpStatus.BAD_REQUEST);
+        }
         try {
-            Optional<List<Comment>> commentsOptional =
-                    commentRepository.findByAuthorId(authorId);
-            if (commentsOptional.isPresent()) {
-                List<Comment> comments = commentsOptional.get();
-                Object author = userClient.getUserById(authorId).getBody(); // Fetch author details once
-                List<CommentResponse> commentResponses = new ArrayList<>();
-                for (Comment comment : comments) {
-                    CommentResponse commentResponse =
-                            new CommentResponse(comment, author);
-                    commentResponses.add(commentResponse);
-                }
-                return new ResponseEntity<>(
-                        new CustomResponse<>
-                                ("Comments retrieved successfully.",
-                                        commentResponses, true), HttpStatus.OK);
-            } else {
-                return new ResponseEntity<>(
-                        new CustomResponse<>("Comments not found.", null, false), HttpStatus.NOT_FOUND);
+            ObjectId after;
+            try {
+                after = CursorPage.decodeCursor(cursor);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(new CustomResponse<>("Invalid cursor.", null, false), HttpStatus.BAD_REQUEST);
             }
+            Pageable page = keysetPage(limit);
+            // The comments and their author are fetched at the same time
+            FanOut.Both<List<Comment>, Object> loaded = fanOut.invokeBoth(
+                    () -> after == null
+                            ? commentRepository.findByAuthorId(authorId, page)
+                            : commentRepository.findByAuthorIdAndIdLessThan(authorId, after, page),
+                    () -> userClientService.getAuthorById(authorId)); // Fetch author details once
+            List<Comment> comments = loaded.first();
+            boolean hasMore = comments.size() > limit;
+            if (hasMore) comments = comments.subList(0, limit);
+            Object author = loaded.second();
+            List<CommentResponse> commentResponses = new ArrayList<>();
+            for (Comment comment : comments) {
+                CommentResponse commentResponse =
+                        new CommentResponse(comment, author);
+                commentResponses.add(commentResponse);
+            }
+            return new ResponseEntity<>(
+                    new CustomResponse<>
+                            ("Comments retrieved successfully.",
+                                    new CursorPage<>(commentResponses, nextCursor(comments, hasMore)), true), HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(new CustomResponse<>("Error retrieving comments: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    // Fetch one extra comment to know whether another page exists
+    private static Pageable keysetPage(int limit) {
+        return PageRequest.of(0, limit + 1, Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    private static String nextCursor(List<Comment> comments, boolean hasMore) {
+        return hasMore ? CursorPage.encodeCursor(comments.get(comments.size() - 1).getId()) : null;
+    }
+
+    // Attach the authors of the comments without holding the request thread while user-service answers
+    private Mono<List<CommentResponse>> withAuthors(List<Comment> comments) {
+        return reactiveUserClientService.getAuthorsByIds(
+                        comments.stream().map(Comment::getAuthorId).toList()) // Fetch all authors at once
+                .map(authors -> {
+                    List<CommentResponse> commentResponses = new ArrayList<>();
+                    for (Comment comment : comments) {
+                        CommentResponse commentResponse = new CommentResponse(comment, authors.get(comment.getAuthorId()));
+                        commentResponses.add(commentResponse);
+                    }
+                    return commentResponses;
+                });
+    }
 }
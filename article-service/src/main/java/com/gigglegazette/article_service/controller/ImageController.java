@@ -1,16 +1,38 @@
 package com.gigglegazette.article_service.controller;
 
+import com.gigglegazette.article_service.model.ArticleRef;
 import com.gigglegazette.article_service.model.Image;
+import com.gigglegazette.article_service.repository.ArticleRepository;
+import com.gigglegazette.article_service.repository.FieldProjections;
 import com.gigglegazette.article_service.repository.ImageRepository;
+import com.gigglegazette.article_service.repository.PartialUpdateOperations;
+import com.gigglegazette.article_service.repository.ValidatorOperations;
+import com.gigglegazette.article_service.service.ImageBlobCollector;
+import com.gigglegazette.article_service.service.ImageBlobStore;
+import com.gigglegazette.article_service.service.ImageDerivativeService;
 import com.gigglegazette.article_service.util.CustomResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -18,9 +40,36 @@ import java.util.*;
 @RequestMapping("/images")
 public class ImageController {
 
+    // Taken from the uploaded file, so they must keep describing the bytes that are served
+    private static final String[] UPLOADED_IMAGE_FIELDS = {"article", "blobHash", "size", "contentType", "url", "width", "height"};
+
     @Autowired
     private ImageRepository imageRepository;
 
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private PartialUpdateOperations partialUpdateOperations;
+
+    @Autowired
+    private ValidatorOperations validatorOperations;
+
+    @Autowired
+    private ImageBlobStore imageBlobStore;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ImageBlobCollector imageBlobCollector;
+
+    @Autowired
+    private FieldProjections fieldProjections;
+
+    @Value("${gigglegazette.app.imageMaxSize:10MB}")
+    private DataSize imageMaxSize;
+
     /**
      * Create a new image.
      *
@@ -44,6 +93,14 @@ public class ImageController {
             );
         }
         try {
+            if (image.getArticle() != null) {
+                Optional<ArticleRef> articleRef = articleRepository.findRefById(image.getArticle().getId());
+                if (articleRef.isEmpty()) {
+                    return new ResponseEntity<>(new CustomResponse<>("Article not found.", null, false), HttpStatus.NOT_FOUND);
+                }
+                image.setArticle(articleRef.get());
+            }
+            image.setBlobHash(null); // Only set by uploads
             Image savedImage = imageRepository.save(image);
             return new ResponseEntity<>(new CustomResponse<>("Image created successfully.", savedImage, true), HttpStatus.CREATED);
         } catch (Exception e) {
@@ -51,16 +108,143 @@ public class ImageController {
         }
     }
 
+    /**
+     * Upload an image file and create an image for it.
+     *
+     * The request body is the raw file, which is streamed to the image store. The size, content
+     * type and dimensions are taken from the file, and the URL points at {@link #getImageContent}.
+     * Smaller copies of the image are generated in the background.
+     *
+     * @param name        The name of the image.
+     * @param articleId   The ID of the article the image belongs to, if any.
+     * @param description The description of the image.
+     * @param isPublic    Whether the image is public.
+     * @param content     The image file.
+     * @return A response entity with the created image.
+     */
+    @PostMapping(value = "/upload", consumes = {"image/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<CustomResponse<Image>> uploadImage(@RequestParam String name,
+                                                             @RequestParam(required = false) String articleId,
+                                                             @RequestParam(required = false) String description,
+                                                             @RequestParam(defaultValue = "false") boolean isPublic,
+                                                             InputStream content) {
+        try {
+            if (name.isBlank() || name.length() > 100) {
+                return new ResponseEntity<>(new CustomResponse<>("Image name must be between 1 and 100 characters", null, false), HttpStatus.BAD_REQUEST);
+            }
+            ArticleRef article = null;
+            if (articleId != null) {
+                Optional<ArticleRef> articleRef = articleRepository.findRefById(articleId);
+                if (articleRef.isEmpty()) {
+                    return new ResponseEntity<>(new CustomResponse<>("Article not found.", null, false), HttpStatus.NOT_FOUND);
+                }
+                article = articleRef.get();
+            }
+            ImageBlobStore.StoredBlob blob = imageBlobStore.store(content, imageMaxSize.toBytes());
+            if (blob.contentType() == null) {
+                return new ResponseEntity<>(new CustomResponse<>("Only PNG, JPEG, GIF, BMP and WebP images are supported.", null, false), HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+            }
+            int[] dimensions = ImageDerivativeService.readDimensions(imageBlobStore.locate(blob.hash())).orElse(new int[]{0, 0});
+            String id = new ObjectId().toHexString();
+            Image image = new Image("/images/" + id + "/content", name, article, description,
+                    blob.contentType(), blob.size(), dimensions[0], dimensions[1], isPublic);
+            image.setId(id);
+            image.setBlobHash(blob.hash());
+            image.setCreatedAt(LocalDateTime.now()); // Not set by auditing when the ID is assigned up front
+            Image savedImage = imageRepository.save(image);
+            imageDerivativeService.schedule(savedImage);
+            return new ResponseEntity<>(new CustomResponse<>("Image uploaded successfully.", savedImage, true), HttpStatus.CREATED);
+        } catch (MaxUploadSizeExceededException e) {
+            return new ResponseEntity<>(new CustomResponse<>("Image is larger than " + imageMaxSize + ".", null, false), HttpStatus.PAYLOAD_TOO_LARGE);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new CustomResponse<>("Error uploading image: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Download the file of an uploaded image.
+     *
+     * Honors {@code If-None-Match} with 304 Not Modified and a single {@code Range} (with
+     * {@code If-Range}) with 206 Partial Content. The file is sent without copying it through the heap.
+     *
+     * @param id The ID of the image whose file is to be downloaded.
+     * @param webRequest The current request, used to check the conditional headers.
+     * @param request The current request, used to read the range headers.
+     * @param response The current response, which the file is written to.
+     * @return A not found message if the image has no uploaded file; otherwise the file is written directly.
+     */
+    @GetMapping("/{id}/content")
+    public ResponseEntity<?> getImageContent(@PathVariable String id, WebRequest webRequest,
+                                             HttpServletRequest request, HttpServletResponse response) {
+        try {
+            Optional<Image> imageOptional = imageRepository.findById(id);
+            if (imageOptional.isEmpty() || imageOptional.get().getBlobHash() == null) {
+                return new ResponseEntity<>(new CustomResponse<>("Image content not found.", null, false), HttpStatus.NOT_FOUND);
+            }
+            Image image = imageOptional.get();
+            // The content never changes for a given hash, so the hash is a strong entity tag
+            String etag = "\"" + image.getBlobHash() + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return null; // 304 Not Modified, headers already written
+            }
+
+            long size = image.getSize();
+            long start = 0;
+            long length = size;
+            String range = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            // A stale If-Range means the client's partial copy is of other content, so send all of it
+            if (range != null && (ifRange == null || ifRange.equals(etag))) {
+                List<HttpRange> ranges;
+                try {
+                    ranges = HttpRange.parseRanges(range);
+                } catch (IllegalArgumentException e) {
+                    ranges = List.of();
+                }
+                // Multiple ranges are rare for images; answering them with the whole file is allowed
+                if (ranges.size() == 1) {
+                    HttpRange httpRange = ranges.get(0);
+                    try {
+                        start = httpRange.getRangeStart(size);
+                        length = httpRange.getRangeEnd(size) - start + 1;
+                    } catch (IllegalArgumentException e) {
+                        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                                .build();
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + length - 1) + "/" + size);
+                }
+            }
+            response.setContentType(image.getContentType());
+            response.setContentLengthLong(length);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader("X-Content-Type-Options", "nosniff");
+            if (!"HEAD".equals(request.getMethod())) {
+                imageBlobStore.transfer(image.getBlobHash(), start, length, request, response);
+            }
+            return null; // Body already written
+        } catch (Exception e) {
+            return new ResponseEntity<>(new CustomResponse<>("Error retrieving image content: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Fetch all images.
      *
+     * @param fields The comma-separated image fields to return, or nothing for all of them.
      * @return A response entity with the list of all images and a success message.
      */
     @GetMapping
-    public ResponseEntity<CustomResponse<List<Image>>> getAllImages() {
+    public ResponseEntity<CustomResponse<List<Image>>> getAllImages(@RequestParam(required = false) String fields) {
         try {
-            List<Image> images = imageRepository.findAll();
+            FieldProjections.Projection projection = fieldProjections.select(Image.class, fields);
+            List<Image> images = projection == null
+                    ? imageRepository.findAll()
+                    : fieldProjections.find(new Query(), Image.class, projection);
             return new ResponseEntity<>(new CustomResponse<>("Images retrieved successfully.", images, true), HttpStatus.OK);
+        } catch (FieldProjections.InvalidFieldsException e) {
+            return new ResponseEntity<>(new CustomResponse<>(e.getMessage(), null, false), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(new CustomResponse<>("Error retrieving images: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -69,23 +253,92 @@ public class ImageController {
     /**
      * Fetch an image by its ID.
      *
+     * Answers 304 Not Modified when the client's copy is still current, without loading the image.
+     *
      * @param id The ID of the image to be fetched.
+     * @param fields The comma-separated image fields to return, or nothing for all of them.
+     * @param webRequest The current request, used to check the conditional headers.
      * @return A response entity with the image details if found, otherwise a not found message.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<CustomResponse<Image>> getImageById(@PathVariable String id) {
+    public ResponseEntity<CustomResponse<Image>> getImageById(@PathVariable String id, @RequestParam(required = false) String fields,
+                                                              WebRequest webRequest) {
         try {
-            Optional<Image> image = imageRepository.findById(id);
+            FieldProjections.Projection projection = fieldProjections.select(Image.class, fields);
+            Optional<ValidatorOperations.Validator> validator = validatorOperations.forDocument(Image.class, id);
+            if (validator.isEmpty()) {
+                return new ResponseEntity<>(new CustomResponse<>("Image not found.", null, false), HttpStatus.NOT_FOUND);
+            }
+            if (projection != null) {
+                // Each field list is a representation of its own, with its own entity tag
+                validator = Optional.of(validator.get().with(projection.key()));
+            }
+            if (webRequest.checkNotModified(validator.get().quotedEtag(), validator.get().lastModified())) {
+                return null; // 304 Not Modified, headers already written
+            }
+            Optional<Image> image = projection == null
+                    ? imageRepository.findById(id)
+                    : fieldProjections.findById(id, Image.class, projection);
             return image.map(value -> new ResponseEntity<>(new CustomResponse<>("Image retrieved successfully.", value, true), HttpStatus.OK))
                     .orElseGet(() -> new ResponseEntity<>(new CustomResponse<>("Image not found.", null, false), HttpStatus.NOT_FOUND));
+        } catch (FieldProjections.InvalidFieldsException e) {
+            return new ResponseEntity<>(new CustomResponse<>(e.getMessage(), null, false), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(new CustomResponse<>("Error retrieving image: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Download an uploaded image sized for display at the given width.
+     *
+     * Serves the smallest generated copy at least {@code w} pixels wide, or the original file
+     * if there is none yet or the original is not wider. Honors {@code If-None-Match} with 304 Not Modified.
+     *
+     * @param id The ID of the image to be downloaded.
+     * @param w The width in pixels the image will be displayed at.
+     * @param webRequest The current request, used to check the conditional headers.
+     * @param request The current request.
+     * @param response The current response, which the file is written to.
+     * @return A not found message if the image has no uploaded file; otherwise the file is written directly.
+     */
+    @GetMapping(value = "/{id}", params = "w")
+    public ResponseEntity<?> getImageContentForWidth(@PathVariable String id, @RequestParam int w, WebRequest webRequest,
+                                                     HttpServletRequest request, HttpServletResponse response) {
+        if (w <= 0) {
+            return new ResponseEntity<>(new CustomResponse<>("Width must be a positive number", null, false), HttpStatus.BAD_REQUEST);
+        }
+        try {
+            Optional<Image> imageOptional = imageRepository.findById(id);
+            if (imageOptional.isEmpty() || imageOptional.get().getBlobHash() == null) {
+                return new ResponseEntity<>(new CustomResponse<>("Image content not found.", null, false), HttpStatus.NOT_FOUND);
+            }
+            Image image = imageOptional.get();
+            Optional<ImageDerivativeService.Derivative> derivative = imageDerivativeService.nearest(image, w);
+            if (derivative.isEmpty()) {
+                return getImageContent(id, webRequest, request, response);
+            }
+            String etag = "\"" + image.getBlobHash() + "-" + derivative.get().width() + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return null; // 304 Not Modified, headers already written
+            }
+            long length = Files.size(derivative.get().file());
+            response.setContentType(derivative.get().contentType());
+            response.setContentLengthLong(length);
+            response.setHeader("X-Content-Type-Options", "nosniff");
+            if (!"HEAD".equals(request.getMethod())) {
+                imageBlobStore.transfer(derivative.get().file(), 0, length, request, response);
+            }
+            return null; // Body already written
+        } catch (Exception e) {
+            return new ResponseEntity<>(new CustomResponse<>("Error retrieving image content: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Update an existing image's attributes based on the request body.
      * Only the fields included in the request body will be updated.
+     * An image cannot be moved to another article, and its uploaded file cannot be replaced.
+     * For an uploaded image, the attributes read from the file cannot be changed either.
      *
      * @param id           The ID of the image to be updated.
      * @param imageDetails The updated image details.
@@ -94,20 +347,13 @@ public class ImageController {
     @PutMapping("/{id}")
     public ResponseEntity<CustomResponse<Image>> updateImage(@PathVariable String id, @RequestBody Image imageDetails) {
         try {
-            Optional<Image> imageOptional = imageRepository.findById(id);
+            // The blob hash is only set when an image is uploaded, so it cannot appear between this check and the update
+            String[] ignoredFields = imageRepository.existsByIdAndBlobHashIsNotNull(id)
+                    ? UPLOADED_IMAGE_FIELDS
+                    : new String[]{"article", "blobHash"};
+            Optional<Image> imageOptional = partialUpdateOperations.update(id, imageDetails, Image.class, ignoredFields);
             if (imageOptional.isPresent()) {
-                Image image = imageOptional.get();
-                if (imageDetails.getUrl() != null) image.setUrl(imageDetails.getUrl());
-                if (imageDetails.getName() != null) image.setName(imageDetails.getName());
-                if (imageDetails.getDescription() != null) image.setDescription(imageDetails.getDescription());
-                if (imageDetails.getContentType() != null) image.setContentType(imageDetails.getContentType());
-                if (imageDetails.getSize() > 0) image.setSize(imageDetails.getSize());
-                if (imageDetails.getWidth() > 0) image.setWidth(imageDetails.getWidth());
-                if (imageDetails.getHeight() > 0) image.setHeight(imageDetails.getHeight());
-                if (imageDetails.getArticle() != null) image.setArticle(imageDetails.getArticle());
-                if (imageDetails.isPublic() != image.isPublic()) image.setPublic(imageDetails.isPublic());
-                Image updatedImage = imageRepository.save(image);
-                return new ResponseEntity<>(new CustomResponse<>("Image updated successfully.", updatedImage, true), HttpStatus.OK);
+                return new ResponseEntity<>(new CustomResponse<>("Image updated successfully.", imageOptional.get(), true), HttpStatus.OK);
             } else {
                 return new ResponseEntity<>(new CustomResponse<>("Image not found.", null, false), HttpStatus.NOT_FOUND);
             }
@@ -118,6 +364,7 @@ public class ImageController {
 
     /**
      * Delete an image by its ID.
+     * Its stored file is removed too unless another image refers to the same content.
      *
      * @param id The ID of the image to be deleted.
      * @return A response entity indicating whether the deletion was successful or the image was not found.
@@ -128,6 +375,8 @@ public class ImageController {
             Optional<Image> imageOptional = imageRepository.findById(id);
             if (imageOptional.isPresent()) {
                 imageRepository.deleteById(id);
+                imageDerivativeService.delete(id);
+                imageBlobCollector.release(Collections.singletonList(imageOptional.get().getBlobHash()));
                 return new ResponseEntity<>(new CustomResponse<>("Image deleted successfully.", null, true), HttpStatus.OK);
             } else {
                 return new ResponseEntity<>(new CustomResponse<>("Image not found.", null, false), HttpStatus.NOT_FOUND);
@@ -141,13 +390,20 @@ public class ImageController {
      * Fetch all images associated with a specific article.
      *
      * @param articleId The ID of the article for which images are to be retrieved.
+     * @param fields The comma-separated image fields to return, or nothing for all of them.
      * @return A response entity with the list of images for the specified article.
      */
     @GetMapping("/article/{articleId}")
-    public ResponseEntity<CustomResponse<List<Image>>> getImagesByArticleId(@PathVariable String articleId) {
+    public ResponseEntity<CustomResponse<List<Image>>> getImagesByArticleId(@PathVariable String articleId,
+                                                                           @RequestParam(required = false) String fields) {
         try {
-            List<Image> images = imageRepository.findByArticle_Id(articleId);
+            FieldProjections.Projection projection = fieldProjections.select(Image.class, fields);
+            List<Image> images = projection == null
+                    ? imageRepository.findByArticle_Id(articleId)
+                    : fieldProjections.find(new Query(Criteria.where("article._id").is(articleId)), Image.class, projection);
             return new ResponseEntity<>(new CustomResponse<>("Images for the article retrieved successfully.", images, true), HttpStatus.OK);
+        } catch (FieldProjections.InvalidFieldsException e) {
+            return new ResponseEntity<>(new CustomResponse<>(e.getMessage(), null, false), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(new CustomResponse<>("Error retrieving images for article: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
         }
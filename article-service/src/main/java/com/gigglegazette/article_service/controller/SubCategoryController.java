@@ -1,15 +1,28 @@
 package com.gigglegazette.article_service.controller;
 
+import com.gigglegazette.article_service.model.ArticleSummary;
 import com.gigglegazette.article_service.model.SubCategory;
+import com.gigglegazette.article_service.model.SubCategorySummary;
+import com.gigglegazette.article_service.repository.ArticleCategoryOperations;
+import com.gigglegazette.article_service.repository.ReactiveArticleRepository;
 import com.gigglegazette.article_service.repository.SubCategoryRepository;
+import com.gigglegazette.article_service.service.ReactiveUserClientService;
+import com.gigglegazette.article_service.util.ArticleSummaryResponse;
+import com.gigglegazette.article_service.util.CursorPage;
 import com.gigglegazette.article_service.util.CustomResponse;
 import jakarta.validation.Valid;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -21,6 +34,15 @@ public class SubCategoryController {
     @Autowired
     private SubCategoryRepository subCategoryRepository;
 
+    @Autowired
+    private ReactiveArticleRepository reactiveArticleRepository;
+
+    @Autowired
+    private ArticleCategoryOperations articleCategoryOperations;
+
+    @Autowired
+    private ReactiveUserClientService reactiveUserClientService;
+
     /**
      * Create a new subcategory.
      *
@@ -54,13 +76,14 @@ public class SubCategoryController {
 
     /**
      * Fetch all subcategories.
+     * Subcategories are returned as summaries naming their parent category by ID.
      *
      * @return A response entity with the list of all subcategories and a success message.
      */
     @GetMapping
-    public ResponseEntity<CustomResponse<List<SubCategory>>> getAllSubCategories() {
+    public ResponseEntity<CustomResponse<List<SubCategorySummary>>> getAllSubCategories() {
         try {
-            List<SubCategory> subCategories = subCategoryRepository.findAll();
+            List<SubCategorySummary> subCategories = subCategoryRepository.findSummariesBy();
             return new ResponseEntity<>(new CustomResponse<>("SubCategories retrieved successfully.", subCategories, true), HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(new CustomResponse<>("Error retrieving subcategories: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -84,9 +107,56 @@ public class SubCategoryController {
         }
     }
 
+    /**
+     * Fetch the articles filed under a subcategory one page at a time, newest first.
+     *
+     * @param id     The ID of the subcategory.
+     * @param cursor The {@code next} cursor of the previous page, or nothing for the first page.
+     * @param limit  The maximum number of articles to return.
+     * @return A response entity with the page of article summaries and the cursor of the next page.
+     */
+    @GetMapping("/{id}/articles")
+    public Mono<ResponseEntity<CustomResponse<CursorPage<ArticleSummaryResponse>>>> getArticlesBySubCategoryId(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ArticleController.DEFAULT_PAGE_SIZE) int limit) {
+        if (limit < 1 || limit > ArticleController.MAX_PAGE_SIZE) {
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>("Limit must be between 1 and " + ArticleController.MAX_PAGE_SIZE + ".", null, false), HttpStatus.BAD_REQUEST));
+        }
+        if (!ObjectId.isValid(id)) {
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>("SubCategory not found.", null, false), HttpStatus.NOT_FOUND));
+        }
+        ObjectId after;
+        try {
+            after = CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(new ResponseEntity<>(new CustomResponse<>("Invalid cursor.", null, false), HttpStatus.BAD_REQUEST));
+        }
+        Pageable page = PageRequest.of(0, limit + 1, Sort.by(Sort.Direction.DESC, "id"));
+        Flux<ArticleSummary> articles = after == null
+                ? reactiveArticleRepository.findSummariesBySubCategoryId(id, page)
+                : reactiveArticleRepository.findSummariesBySubCategoryIdAndIdLessThan(id, after, page);
+        return articles.collectList().flatMap(fetched -> {
+                    boolean hasMore = fetched.size() > limit;
+                    List<ArticleSummary> pageArticles = hasMore ? fetched.subList(0, limit) : fetched;
+                    return reactiveUserClientService.getAuthorsByIds(
+                                    pageArticles.stream().map(ArticleSummary::getAuthorId).toList()) // Fetch all authors at once
+                            .map(authors -> {
+                                List<ArticleSummaryResponse> articleResponses = new ArrayList<>();
+                                for (ArticleSummary article : pageArticles) {
+                                    articleResponses.add(new ArticleSummaryResponse(article, authors.get(article.getAuthorId())));
+                                }
+                                String next = hasMore ? CursorPage.encodeCursor(pageArticles.get(pageArticles.size() - 1).getId()) : null;
+                                return new ResponseEntity<>(new CustomResponse<>("Articles retrieved successfully.", new CursorPage<>(articleResponses, next), true), HttpStatus.OK);
+                            });
+                })
+                .onErrorResume(e -> Mono.just(new ResponseEntity<>(new CustomResponse<>("Error retrieving articles: " + e.getMessage(), null, false), HttpStatus.INTERNAL_SERVER_ERROR)));
+    }
+
     /**
      * Update an existing subcategory's attributes based on the request body.
      * Only the fields included in the request body will be updated.
+     * Moving a subcategory to another category moves its articles with it.
      *
      * @param id                 The ID of the subcategory to be updated.
      * @param subCategoryDetails The updated subcategory details.
@@ -104,6 +174,9 @@ public class SubCategoryController {
                 if (subCategoryDetails.getParentCategory() != null)
                     subCategory.setParentCategory(subCategoryDetails.getParentCategory());
                 SubCategory updatedSubCategory = subCategoryRepository.save(subCategory);
+                if (subCategoryDetails.getParentCategory() != null) {
+                    articleCategoryOperations.parentChanged(id, updatedSubCategory.getParentCategory().getId());
+                }
                 return new ResponseEntity<>(new CustomResponse<>("SubCategory updated successfully.", updatedSubCategory, true), HttpStatus.OK);
             } else {
                 return new ResponseEntity<>(new CustomResponse<>("SubCategory not found.", null, false), HttpStatus.NOT_FOUND);
@@ -114,7 +187,7 @@ public class SubCategoryController {
     }
 
     /**
-     * Delete a subcategory by its ID.
+     * Delete a subcategory by its ID. Its articles are kept, no longer filed under any subcategory.
      *
      * @param id The ID of the subcategory to be deleted.
      * @return A response entity indicating whether the deletion was successful or the subcategory was not found.
@@ -125,6 +198,7 @@ public class SubCategoryController {
             Optional<SubCategory> subCategoryOptional = subCategoryRepository.findById(id);
             if (subCategoryOptional.isPresent()) {
                 subCategoryRepository.deleteById(id);
+                articleCategoryOperations.subCategoryDeleted(id);
                 return new ResponseEntity<>(new CustomResponse<>("SubCategory deleted successfully.", null, true), HttpStatus.OK);
             } else {
                 return new ResponseEntity<>(new CustomResponse<>("SubCategory not found.", null, false), HttpStatus.NOT_FOUND);
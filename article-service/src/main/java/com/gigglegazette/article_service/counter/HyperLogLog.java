@@ -0,0 +1,110 @@
+package com.gigglegazette.article_service.counter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Estimates the number of distinct values added to it in a fixed 4 KB, whatever that number is.
+ * <p>
+ * Each value is hashed to 64 bits; the first 12 bits pick one of 4096 registers, which keeps
+ * the longest run of leading zeros seen in the remaining bits. The standard error of the
+ * estimate is about 1.6%. Merging two sketches keeps the larger value of each register, so it
+ * gives the sketch of the union, and merging the same sketch again changes nothing.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    public static final int REGISTERS = 1 << PRECISION;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /**
+     * @param registers The registers of a sketch, as returned by {@link #toBytes()}.
+     * @return A sketch with a copy of the registers.
+     */
+    public static HyperLogLog fromBytes(byte[] registers) {
+        if (registers.length != REGISTERS) {
+            throw new IllegalArgumentException("Expected " + REGISTERS + " registers, got " + registers.length);
+        }
+        return new HyperLogLog(registers.clone());
+    }
+
+    /**
+     * Add a value to the sketch.
+     */
+    public void add(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        // The low bit set after the index bits caps the rank at 64 - PRECISION + 1
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        synchronized (registers) {
+            if (rank > registers[index]) registers[index] = rank;
+        }
+    }
+
+    /**
+     * Add every value of another sketch to this one.
+     */
+    public void merge(HyperLogLog other) {
+        byte[] theirs = other.toBytes();
+        synchronized (registers) {
+            for (int i = 0; i < REGISTERS; i++) {
+                if (theirs[i] > registers[i]) registers[i] = theirs[i];
+            }
+        }
+    }
+
+    /**
+     * @return The estimated number of distinct values added.
+     */
+    public long estimate() {
+        double sum = 0;
+        int empty = 0;
+        synchronized (registers) {
+            for (byte register : registers) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) empty++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // Few values: most registers are still empty and counting them is more accurate
+        if (estimate <= 2.5 * REGISTERS && empty > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / empty);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * @return A copy of the registers, one byte each.
+     */
+    public byte[] toBytes() {
+        synchronized (registers) {
+            return Arrays.copyOf(registers, REGISTERS);
+        }
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, then the MurmurHash3 finalizer to spread short, similar IDs over all bits
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
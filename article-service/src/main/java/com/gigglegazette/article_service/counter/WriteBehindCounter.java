@@ -0,0 +1,142 @@
+package com.gigglegazette.article_service.counter;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffers increments of one numeric field per document in memory and writes them
+ * to MongoDB periodically as a single unordered bulk of {@code $inc} updates.
+ * <p>
+ * Increments are applied inside {@link ConcurrentHashMap#compute}, and idle entries are removed
+ * the same way, so an increment never lands on a buffer that has already been dropped from the map.
+ * The flush drains each {@link LongAdder} without locking it. At most {@code flushInterval}
+ * worth of increments, and never more than {@code maxPending} of them, are held
+ * in memory, which bounds what a crash can lose.
+ */
+public class WriteBehindCounter implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindCounter.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final Class<?> entityType;
+    private final String field;
+    private final TaskScheduler taskScheduler;
+    private final Duration flushInterval;
+    private final long maxPending;
+
+    private final ConcurrentHashMap<String, LongAdder> deltas = new ConcurrentHashMap<>();
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public WriteBehindCounter(MongoTemplate mongoTemplate, Class<?> entityType, String field,
+                              TaskScheduler taskScheduler, Duration flushInterval, long maxPending) {
+        this.mongoTemplate = mongoTemplate;
+        this.entityType = entityType;
+        this.field = field;
+        this.taskScheduler = taskScheduler;
+        this.flushInterval = flushInterval;
+        this.maxPending = maxPending;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduledFlush = taskScheduler.scheduleWithFixedDelay(this::flush, flushInterval);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduledFlush != null) scheduledFlush.cancel(false);
+        flush(); // Write out what is buffered on a clean shutdown
+    }
+
+    /**
+     * Buffer a change of the counter of one document.
+     *
+     * @param id    The ID of the document.
+     * @param delta The amount to add; negative to subtract.
+     */
+    public void add(String id, long delta) {
+        deltas.compute(id, (key, adder) -> {
+            if (adder == null) adder = new LongAdder();
+            adder.add(delta);
+            return adder;
+        });
+        if (pendingEvents.incrementAndGet() >= maxPending && earlyFlushScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::flush, Instant.now());
+        }
+    }
+
+    /**
+     * @return The buffered change for a document that has not been written to MongoDB yet.
+     */
+    public long pending(String id) {
+        LongAdder adder = deltas.get(id);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Write every buffered change to MongoDB in one bulk operation.
+     *
+     * @return The number of documents updated.
+     */
+    public synchronized int flush() {
+        earlyFlushScheduled.set(false);
+        pendingEvents.set(0);
+
+        List<String> ids = new ArrayList<>();
+        List<Long> amounts = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> entry : deltas.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta == 0) {
+                // Idle since the last flush: drop the entry unless an increment arrived in the meantime
+                deltas.compute(entry.getKey(), (key, adder) -> adder == null || adder.sum() == 0 ? null : adder);
+                continue;
+            }
+            ids.add(entry.getKey());
+            amounts.add(delta);
+        }
+        if (ids.isEmpty()) return 0;
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityType);
+        for (int i = 0; i < ids.size(); i++) {
+            long delta = amounts.get(i);
+            Criteria criteria = Criteria.where("_id").is(ids.get(i));
+            // Never take the counter below zero
+            if (delta < 0) criteria = criteria.and(field).gte(-delta);
+            bulkOps.updateOne(new Query(criteria), new Update().inc(field, delta));
+        }
+        try {
+            bulkOps.execute();
+        } catch (BulkOperationException e) {
+            // Unordered: only the failed updates need to be retried
+            for (BulkWriteError error : e.getErrors()) {
+                add(ids.get(error.getIndex()), amounts.get(error.getIndex()));
+            }
+            logger.warn("{} of {} {} updates failed and will be retried", e.getErrors().size(), ids.size(), field);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < ids.size(); i++) add(ids.get(i), amounts.get(i));
+            logger.warn("Could not flush {} {} updates, will retry: {}", ids.size(), field, e.getMessage());
+        }
+        return ids.size();
+    }
+}
@@ -0,0 +1,79 @@
+package com.gigglegazette.article_service.migration;
+
+import com.gigglegazette.article_service.model.ArticleBody;
+import com.gigglegazette.article_service.service.ArticleBodyService;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves the HTML of articles written before compressed bodies existed out of the article
+ * documents: each batch is compressed into {@code article_bodies} and then removed from the
+ * articles, so the HTML is stored once. Runs once, in the background through
+ * {@link MigrationRunner}, one batch at a time; an article keeps its HTML until its body is stored.
+ */
+@Component
+public class ArticleBodyMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleBodyMigration.class);
+
+    private static final String COLLECTION = "articles";
+    private static final int BATCH_SIZE = 500;
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MigrationRunner migrationRunner;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        migrationRunner.runOnce("article-bodies", this::migrateBodies);
+    }
+
+    private void migrateBodies() {
+        Criteria withHtml = Criteria.where("htmlContent").exists(true);
+        long migrated = 0;
+        while (true) {
+            // Every batch is removed from the query before the next is read, so the same query walks the whole collection
+            Query query = new Query(withHtml).limit(BATCH_SIZE);
+            query.fields().include("htmlContent");
+            List<Document> batch = mongoTemplate.find(query, Document.class, COLLECTION);
+            if (batch.isEmpty()) break;
+
+            BulkOperations bodyOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ArticleBody.class);
+            for (Document article : batch) {
+                String id = ((ObjectId) article.get("_id")).toHexString();
+                String html = article.getString("htmlContent");
+                bodyOps.insert(ArticleBodyService.compress(id, html == null ? "" : html));
+            }
+            try {
+                bodyOps.execute();
+            } catch (BulkOperationException e) {
+                // A body written by a create or update is newer than ours; keep it
+                if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) throw e;
+            }
+
+            List<Object> ids = batch.stream().map(article -> article.get("_id")).toList();
+            mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids)), new Update().unset("htmlContent"), COLLECTION);
+            migrated += batch.size();
+        }
+        if (migrated > 0) {
+            logger.info("Moved the HTML of {} existing articles into compressed bodies", migrated);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.gigglegazette.article_service.migration;
+
+import com.gigglegazette.article_service.model.Article;
+import com.gigglegazette.article_service.model.Comment;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Counts the comments of articles written before comment counts were stored on them.
+ * Comments are counted with one grouped aggregation per batch of articles. Comments may
+ * still hold the bare article ID if {@link ArticleRefMigration} has not reached them yet.
+ * Runs once, in the background, through {@link MigrationRunner}.
+ */
+@Component
+public class ArticleCommentCountMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleCommentCountMigration.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MigrationRunner migrationRunner;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        migrationRunner.runOnce("article-comment-counts", this::countComments);
+    }
+
+    private void countComments() {
+        List<Object> missing = new ArrayList<>();
+        Query query = new Query(Criteria.where("commentCount").exists(false));
+        query.fields().include("_id");
+        query.cursorBatchSize(BATCH_SIZE);
+        try (Stream<Document> articles = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(Article.class))) {
+            articles.forEach(article -> missing.add(article.get("_id")));
+        }
+
+        for (int from = 0; from < missing.size(); from += BATCH_SIZE) {
+            List<Object> batch = missing.subList(from, Math.min(from + BATCH_SIZE, missing.size()));
+            Aggregation aggregation = Aggregation.newAggregation(
+                    Aggregation.match(new Criteria().orOperator(
+                            Criteria.where("article._id").in(batch), Criteria.where("article").in(batch))),
+                    Aggregation.project("createdAt")
+                            .and(ConditionalOperators.ifNull("article._id").thenValueOf("article")).as("articleId"),
+                    Aggregation.group("articleId").count().as("commentCount").max("createdAt").as("lastCommentAt"));
+            Map<Object, Document> counts = new HashMap<>();
+            for (Document count : mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Comment.class), Document.class)) {
+                counts.put(count.get("_id"), count);
+            }
+
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Article.class);
+            for (Object id : batch) {
+                Document count = counts.get(id);
+                Update update = new Update().set("commentCount", count == null ? 0 : count.getInteger("commentCount"));
+                if (count != null) update.set("lastCommentAt", count.get("lastCommentAt"));
+                // Set rather than incremented: the aggregation already saw comments posted while this ran
+                bulkOps.updateOne(new Query(Criteria.where("_id").is(id)), update);
+            }
+            bulkOps.execute();
+        }
+        if (!missing.isEmpty()) {
+            logger.info("Counted the comments of {} existing articles", missing.size());
+        }
+    }
+}
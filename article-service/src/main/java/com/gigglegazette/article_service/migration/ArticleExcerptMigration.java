@@ -0,0 +1,74 @@
+package com.gigglegazette.article_service.migration;
+
+import com.gigglegazette.article_service.model.ArticleSummary;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Fills in {@code excerpt} for articles written before excerpts existed,
+ * so they show up with a preview in listings. Runs once, in the background,
+ * through {@link MigrationRunner}.
+ */
+@Component
+public class ArticleExcerptMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleExcerptMigration.class);
+
+    private static final String COLLECTION = "articles";
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MigrationRunner migrationRunner;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        migrationRunner.runOnce("article-excerpts", this::computeExcerpts);
+    }
+
+    private void computeExcerpts() {
+        Query query = new Query(Criteria.where("excerpt").exists(false));
+        query.fields().include("content");
+        query.cursorBatchSize(BATCH_SIZE);
+
+        long migrated = 0;
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+        int pending = 0;
+        try (Stream<Document> articles = mongoTemplate.stream(query, Document.class, COLLECTION)) {
+            Iterator<Document> iterator = articles.iterator();
+            while (iterator.hasNext()) {
+                Document article = iterator.next();
+                bulkOps.updateOne(new Query(Criteria.where("_id").is(article.get("_id"))),
+                        new Update().set("excerpt", ArticleSummary.excerptOf(article.getString("content"))));
+                if (++pending == BATCH_SIZE) {
+                    bulkOps.execute();
+                    migrated += pending;
+                    bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            bulkOps.execute();
+            migrated += pending;
+        }
+        if (migrated > 0) {
+            logger.info("Computed excerpts for {} existing articles", migrated);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.gigglegazette.article_service.migration;
+
+import com.gigglegazette.article_service.model.Article;
+import com.gigglegazette.article_service.model.Comment;
+import com.gigglegazette.article_service.model.Image;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites comments and images stored with a bare article ID into the embedded
+ * {@code {_id, title}} form of {@link com.gigglegazette.article_service.model.ArticleRef}.
+ * Runs once per collection, in the background through {@link MigrationRunner}, one batch at
+ * a time: each batch reads only the article IDs, looks up their titles with a single query
+ * and writes the references back in bulk.
+ * Until a document is rewritten it is still readable, without its title.
+ */
+@Component
+public class ArticleRefMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleRefMigration.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MigrationRunner migrationRunner;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        for (Class<?> type : List.of(Comment.class, Image.class)) {
+            String collection = mongoTemplate.getCollectionName(type);
+            migrationRunner.runOnce("article-refs-" + collection, () -> migrate(collection));
+        }
+    }
+
+    private void migrate(String collection) {
+        Criteria bareId = Criteria.where("article").type(BsonType.OBJECT_ID.getValue());
+        long migrated = 0;
+        while (true) {
+            // Every batch is rewritten before the next is read, so the same query walks the whole collection
+            Query query = new Query(bareId).limit(BATCH_SIZE);
+            query.fields().include("article");
+            List<Document> batch = mongoTemplate.find(query, Document.class, collection);
+            if (batch.isEmpty()) break;
+
+            Query titles = new Query(Criteria.where("_id").in(batch.stream().map(document -> document.get("article")).distinct().toList()));
+            titles.fields().include("title");
+            Map<Object, String> titleById = new HashMap<>();
+            for (Document article : mongoTemplate.find(titles, Document.class, mongoTemplate.getCollectionName(Article.class))) {
+                titleById.put(article.get("_id"), article.getString("title"));
+            }
+
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            for (Document document : batch) {
+                Object articleId = document.get("article");
+                // The title stays null if the article is gone, which still moves the document out of the query
+                Document ref = new Document("_id", articleId).append("title", titleById.get(articleId));
+                bulkOps.updateOne(new Query(Criteria.where("_id").is(document.get("_id")).andOperator(bareId)),
+                        new Update().set("article", ref));
+            }
+            bulkOps.execute();
+            migrated += batch.size();
+        }
+        if (migrated > 0) {
+            logger.info("Embedded article references in {} existing {}", migrated, collection);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.gigglegazette.article_service.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Runs the data migrations in the background, so startup does not wait for them, and
+ * records each one in the {@code migrations} collection once it has finished. Later
+ * starts skip a recorded migration instead of querying for documents left to migrate.
+ */
+@Component
+public class MigrationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigrationRunner.class);
+
+    static final String COLLECTION = "migrations";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    /**
+     * Run a migration on the application task executor unless it has completed before.
+     * A migration that fails is logged and runs again on the next start, so it must be
+     * safe to run again over documents it has already migrated.
+     *
+     * @param name      Identifies the migration in {@code migrations}; never change it once released.
+     * @param migration The migration.
+     */
+    public void runOnce(String name, Runnable migration) {
+        taskExecutor.execute(() -> {
+            try {
+                Query completed = new Query(Criteria.where("_id").is(name));
+                if (mongoTemplate.exists(completed, COLLECTION)) return;
+                migration.run();
+                mongoTemplate.upsert(completed, new Update().set("completedAt", LocalDateTime.now()), COLLECTION);
+            } catch (RuntimeException e) {
+                logger.error("Migration {} failed; it runs again on the next start", name, e);
+            }
+        });
+    }
+}
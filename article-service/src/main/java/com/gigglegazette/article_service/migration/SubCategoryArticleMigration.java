@@ -0,0 +1,79 @@
+package com.gigglegazette.article_service.migration;
+
+import com.gigglegazette.article_service.model.Article;
+import com.gigglegazette.article_service.model.SubCategory;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Moves subcategory membership from the {@code articles} array stored on subcategories
+ * onto the articles, as {@code subCategoryId} and {@code categoryId}. Articles are
+ * updated 500 at a time; the array is removed once all its articles are updated, so an
+ * interrupted run picks up where it stopped. Runs once, in the background, through
+ * {@link MigrationRunner}.
+ */
+@Component
+public class SubCategoryArticleMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubCategoryArticleMigration.class);
+
+    private static final int BATCH_SIZE = 500;
+    // Each subcategory carries its whole article list, so only fetch a few at a time
+    private static final int SUBCATEGORY_BATCH_SIZE = 10;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MigrationRunner migrationRunner;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        migrationRunner.runOnce("subcategory-article-ids", this::moveMembership);
+    }
+
+    private void moveMembership() {
+        Query query = new Query(Criteria.where("articles").exists(true));
+        query.fields().include("parentCategory").include("articles");
+        query.cursorBatchSize(SUBCATEGORY_BATCH_SIZE);
+        String collection = mongoTemplate.getCollectionName(SubCategory.class);
+
+        long subCategories = 0;
+        long articles = 0;
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class, collection)) {
+            Iterator<Document> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Document subCategory = iterator.next();
+                List<?> articleIds = subCategory.getList("articles", Object.class, List.of());
+                for (int from = 0; from < articleIds.size(); from += BATCH_SIZE) {
+                    List<?> batch = articleIds.subList(from, Math.min(from + BATCH_SIZE, articleIds.size()));
+                    mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(batch)),
+                            new Update().set("subCategoryId", subCategory.get("_id"))
+                                    .set("categoryId", subCategory.get("parentCategory"))
+                                    .inc("version", 1).currentDate("updatedAt"),
+                            Article.class);
+                }
+                mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(subCategory.get("_id"))),
+                        new Update().unset("articles"), collection);
+                subCategories++;
+                articles += articleIds.size();
+            }
+        }
+        if (subCategories > 0) {
+            logger.info("Moved {} articles of {} subcategories onto the articles", articles, subCategories);
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.gigglegazette.article_service.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.gigglegazette.article_service.repository.FieldProjections;
 import jakarta.validation.constraints.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 import org.springframework.data.mongodb.core.mapping.FieldType;
 import org.springframework.data.mongodb.core.mapping.MongoId;
 
@@ -12,7 +21,15 @@ import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.List;
 
+@CompoundIndexes({
+        @CompoundIndex(name = "authorId_createdAt", def = "{'authorId': 1, 'createdAt': -1}"),
+        @CompoundIndex(name = "status_createdAt", def = "{'status': 1, 'createdAt': -1}"),
+        @CompoundIndex(name = "tags_id", def = "{'tags': 1, '_id': -1}"),
+        @CompoundIndex(name = "subCategoryId_id", def = "{'subCategoryId': 1, '_id': -1}"),
+        @CompoundIndex(name = "categoryId_id", def = "{'categoryId': 1, '_id': -1}")
+})
 @Document(collection = "articles")
+@JsonFilter(FieldProjections.FILTER_ID)
 public class Article {
 
     @MongoId(FieldType.OBJECT_ID)
@@ -26,10 +43,15 @@ public class Article {
     @Size(min = 10, message = "Content must be at least 10 characters")
     private String content;
 
+    // Stored only once, compressed, in article_bodies; see ArticleBodyService
+    @Transient
     @NotBlank(message = "HTML content is required")
     @Size(min = 10, message = "HTML content must be at least 10 characters")
     private String htmlContent;
 
+    // Plain-text preview of content, computed whenever content is written
+    private String excerpt;
+
     @NotBlank(message = "Author ID is required")
     private String authorId;
 
@@ -50,7 +72,35 @@ public class Article {
     @Min(value = 0, message = "Likes cannot be negative")
     private int likes;
 
-    // Constructor
+    // Incremented on every update; send it back on update to only apply changes to this version
+    @Version
+    private Long version;
+
+    // Maintained with $inc as comments are created and deleted; never taken from a request body
+    private int commentCount;
+
+    // When the most recent comment was posted
+    private LocalDateTime lastCommentAt;
+
+    // Maintained with $inc by the view counter; served by GET /articles/{id}/stats rather than with
+    // the article, so views neither change its entity tag nor are taken from a request body
+    @JsonIgnore
+    private long views;
+
+    // The subcategory the article is filed under
+    @Field(targetType = FieldType.OBJECT_ID)
+    private String subCategoryId;
+
+    // The parent category of the subcategory; never taken from a request body
+    @Field(targetType = FieldType.OBJECT_ID)
+    private String categoryId;
+
+    // Constructors
+
+    // Used when reading from MongoDB, which does not hold the HTML content
+    @PersistenceCreator
+    public Article() {
+    }
 
     public Article(String title, String content, String authorId,
                    List<String> tags, String status, int likes, String htmlContent) {
@@ -89,6 +139,14 @@ public class Article {
         this.content = content;
     }
 
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
     public String getAuthorId() {
         return authorId;
     }
@@ -137,6 +195,54 @@ public class Article {
         this.likes = likes;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public LocalDateTime getLastCommentAt() {
+        return lastCommentAt;
+    }
+
+    public void setLastCommentAt(LocalDateTime lastCommentAt) {
+        this.lastCommentAt = lastCommentAt;
+    }
+
+    public long getViews() {
+        return views;
+    }
+
+    public void setViews(long views) {
+        this.views = views;
+    }
+
+    public String getSubCategoryId() {
+        return subCategoryId;
+    }
+
+    public void setSubCategoryId(String subCategoryId) {
+        this.subCategoryId = subCategoryId;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(String categoryId) {
+        this.categoryId = categoryId;
+    }
+
     public @NotBlank(message = "HTML content is required") @Size(min = 10, message = "HTML content must be at least 10 characters") String getHtmlContent() {
         return htmlContent;
     }
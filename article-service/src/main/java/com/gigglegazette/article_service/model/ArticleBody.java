@@ -0,0 +1,80 @@
+package com.gigglegazette.article_service.model;
+
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+import java.time.LocalDateTime;
+
+/**
+ * The HTML body of an article, gzip-compressed once when the article is written
+ * so it can be sent as-is to clients that accept gzip. Shares its ID with the article.
+ */
+@Document(collection = "article_bodies")
+public class ArticleBody {
+
+    @MongoId(FieldType.OBJECT_ID)
+    private String id;
+
+    private byte[] gzipHtml;
+
+    // Length of the uncompressed UTF-8 HTML in bytes
+    private int htmlLength;
+
+    // Hash of the uncompressed HTML, used as the entity tag
+    private String hash;
+
+    private LocalDateTime updatedAt;
+
+    // Constructor
+
+    public ArticleBody(String id, byte[] gzipHtml, int htmlLength, String hash, LocalDateTime updatedAt) {
+        this.id = id;
+        this.gzipHtml = gzipHtml;
+        this.htmlLength = htmlLength;
+        this.hash = hash;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public byte[] getGzipHtml() {
+        return gzipHtml;
+    }
+
+    public void setGzipHtml(byte[] gzipHtml) {
+        this.gzipHtml = gzipHtml;
+    }
+
+    public int getHtmlLength() {
+        return htmlLength;
+    }
+
+    public void setHtmlLength(int htmlLength) {
+        this.htmlLength = htmlLength;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
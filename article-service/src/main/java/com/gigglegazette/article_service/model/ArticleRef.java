@@ -0,0 +1,42 @@
+package com.gigglegazette.article_service.model;
+
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+/**
+ * The part of an {@link Article} embedded in the documents that belong to it,
+ * such as comments and images. Reading those documents never loads the article.
+ * Stored as {@code {_id, title}}; the title is kept in step when the article is renamed.
+ */
+public class ArticleRef {
+
+    @MongoId(FieldType.OBJECT_ID)
+    private String id;
+
+    private String title;
+
+    // Constructor
+
+    public ArticleRef(String id, String title) {
+        this.id = id;
+        this.title = title;
+    }
+
+    // Getters and Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+}
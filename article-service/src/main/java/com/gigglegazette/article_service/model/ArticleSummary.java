@@ -0,0 +1,153 @@
+package com.gigglegazette.article_service.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Lightweight view of an {@link Article} for listings. Used as a repository
+ * projection, so {@code content} is never read from MongoDB.
+ */
+public class ArticleSummary {
+
+    public static final int EXCERPT_LENGTH = 280;
+
+    private String id;
+    private String title;
+    private String excerpt;
+    private String authorId;
+    private List<String> tags;
+    private String status;
+    private int likes;
+    private int commentCount;
+    private LocalDateTime lastCommentAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructor
+
+    public ArticleSummary(String id, String title, String excerpt, String authorId, List<String> tags,
+                          String status, int likes, int commentCount, LocalDateTime lastCommentAt,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.excerpt = excerpt;
+        this.authorId = authorId;
+        this.tags = tags;
+        this.status = status;
+        this.likes = likes;
+        this.commentCount = commentCount;
+        this.lastCommentAt = lastCommentAt;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Build the excerpt stored alongside an article: the start of its content,
+     * whitespace-collapsed and cut at a word boundary.
+     *
+     * @param content The full article content.
+     * @return The excerpt, or null when there is no content.
+     */
+    public static String excerptOf(String content) {
+        if (content == null) {
+            return null;
+        }
+        String text = content.strip().replaceAll("\\s+", " ");
+        if (text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        int end = text.lastIndexOf(' ', EXCERPT_LENGTH);
+        if (end <= 0) end = EXCERPT_LENGTH;
+        return text.substring(0, end) + "…";
+    }
+
+    // Getters and Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
+    public String getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(String authorId) {
+        this.authorId = authorId;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getLikes() {
+        return likes;
+    }
+
+    public void setLikes(int likes) {
+        this.likes = likes;
+    }
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public LocalDateTime getLastCommentAt() {
+        return lastCommentAt;
+    }
+
+    public void setLastCommentAt(LocalDateTime lastCommentAt) {
+        this.lastCommentAt = lastCommentAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
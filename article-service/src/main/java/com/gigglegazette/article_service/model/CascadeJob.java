@@ -0,0 +1,142 @@
+package com.gigglegazette.article_service.model;
+
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The deletion of the documents that depend on a deleted article, category or author,
+ * carried out in the background after the delete request has returned.
+ */
+@CompoundIndex(name = "status_createdAt", def = "{'status': 1, 'createdAt': 1}")
+@Document(collection = "cascade_jobs")
+public class CascadeJob {
+
+    public enum Type { ARTICLE, CATEGORY, AUTHOR }
+
+    public enum Status { PENDING, RUNNING, DONE, FAILED }
+
+    @MongoId(FieldType.OBJECT_ID)
+    private String id;
+
+    private Type type;
+
+    // The ID of the deleted article, category or author
+    private String targetId;
+
+    private Status status;
+
+    // Documents removed so far, per collection
+    private Map<String, Long> deleted = new HashMap<>();
+
+    private int attempts;
+
+    // The failure of the last attempt, if it failed
+    private String error;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+
+    // Also renewed while the job runs, so a job left running by a stopped instance can be taken over
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    // Constructor
+
+    public CascadeJob(Type type, String targetId) {
+        this.type = type;
+        this.targetId = targetId;
+        this.status = Status.PENDING;
+    }
+
+    // Getters and Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(String targetId) {
+        this.targetId = targetId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Map<String, Long> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(Map<String, Long> deleted) {
+        this.deleted = deleted;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -1,25 +1,33 @@
 package com.gigglegazette.article_service.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.gigglegazette.article_service.repository.FieldProjections;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.mapping.DocumentReference;
 import org.springframework.data.mongodb.core.mapping.FieldType;
 import org.springframework.data.mongodb.core.mapping.MongoId;
 
 import java.time.LocalDateTime;
 
+@CompoundIndexes({
+        @CompoundIndex(name = "articleRef_id", def = "{'article._id': 1, '_id': -1}"),
+        @CompoundIndex(name = "articleRef_updatedAt", def = "{'article._id': 1, 'updatedAt': -1}"),
+        @CompoundIndex(name = "authorId_id", def = "{'authorId': 1, '_id': -1}")
+})
 @Document(collection = "comments")
+@JsonFilter(FieldProjections.FILTER_ID)
 public class Comment {
 
     @MongoId(FieldType.OBJECT_ID)
     private String id;
 
     @NotNull(message = "Article is required")
-    @DocumentReference(collection = "articles")
-    private Article article;
+    private ArticleRef article;
 
     @NotBlank(message = "Author ID is required")
     private String authorId;
@@ -35,7 +43,7 @@ public class Comment {
 
     // Constructor
 
-    public Comment(String id, Article article, String authorId, String content
+    public Comment(String id, ArticleRef article, String authorId, String content
             , LocalDateTime createdAt, LocalDateTime updatedAt) {
         this.id = id;
         this.article = article;
@@ -54,11 +62,11 @@ public class Comment {
         this.id = id;
     }
 
-    public @NotNull(message = "Article ID is required") Article getArticle() {
+    public @NotNull(message = "Article ID is required") ArticleRef getArticle() {
         return article;
     }
 
-    public void setArticle(@NotNull(message = "Article ID is required") Article article) {
+    public void setArticle(@NotNull(message = "Article ID is required") ArticleRef article) {
         this.article = article;
     }
 
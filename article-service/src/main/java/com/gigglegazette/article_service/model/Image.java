@@ -1,23 +1,30 @@
 package com.gigglegazette.article_service.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.gigglegazette.article_service.repository.FieldProjections;
 import jakarta.validation.constraints.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.mapping.DocumentReference;
 import org.springframework.data.mongodb.core.mapping.FieldType;
 import org.springframework.data.mongodb.core.mapping.MongoId;
 
 import java.time.LocalDateTime;
 
+@CompoundIndexes({
+        @CompoundIndex(name = "articleRef", def = "{'article._id': 1}"),
+        @CompoundIndex(name = "blobHash", def = "{'blobHash': 1}", sparse = true)
+})
 @Document(collection = "images")
+@JsonFilter(FieldProjections.FILTER_ID)
 public class Image {
 
     @MongoId(FieldType.OBJECT_ID)
     private String id;
 
-    @DocumentReference(collection = "articles")
-    private Article article;
+    private ArticleRef article;
 
     @NotBlank(message = "URL is required")
     private String url;
@@ -33,6 +40,9 @@ public class Image {
     @Pattern(regexp = "^image/(png|jpg|jpeg|gif|bmp|webp)$", message = "Content type must be one of the following: image/png, image/jpg, image/jpeg, image/gif, image/bmp, image/webp")
     private String contentType;
 
+    // SHA-256 of the file in the image store, if the file was uploaded here
+    private String blobHash;
+
     @Min(value = 0, message = "Size must be a positive number")
     private long size; // Size in bytes
 
@@ -53,7 +63,7 @@ public class Image {
 
     // Constructor
 
-    public Image(String url, String name, Article article, String description,
+    public Image(String url, String name, ArticleRef article, String description,
                  String contentType, long size
             , int width, int height, boolean isPublic) {
         this.url = url;
@@ -157,11 +167,19 @@ public class Image {
         isPublic = aPublic;
     }
 
-    public Article getArticle() {
+    public String getBlobHash() {
+        return blobHash;
+    }
+
+    public void setBlobHash(String blobHash) {
+        this.blobHash = blobHash;
+    }
+
+    public ArticleRef getArticle() {
         return article;
     }
 
-    public void setArticle(Article article) {
+    public void setArticle(ArticleRef article) {
         this.article = article;
     }
 }
@@ -6,15 +6,19 @@ import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
 import org.springframework.data.mongodb.core.mapping.FieldType;
 import org.springframework.data.mongodb.core.mapping.MongoId;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
+/**
+ * A subdivision of a {@link Category}. Articles name their subcategory with
+ * {@code Article.subCategoryId}, so a subcategory never grows with its articles.
+ */
+@CompoundIndex(name = "parentCategory", def = "{'parentCategory': 1}")
 @Document(collection = "subcategories")
 public class SubCategory {
 
@@ -33,10 +37,6 @@ public class SubCategory {
     @DocumentReference(collection = "categories")
     private Category parentCategory;
 
-    @NotNull(message = "Articles list is needed")
-    @DocumentReference(collection = "articles")
-    private List<Article> articles;
-
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -46,11 +46,10 @@ public class SubCategory {
     // Constructor
 
     public SubCategory(String name, String description,
-                       Category parentCategory, List<Article> articles) {
+                       Category parentCategory) {
         this.name = name;
         this.description = description;
         this.parentCategory = parentCategory;
-        this.articles = articles;
     }
 
     // Getters and Setters
@@ -102,13 +101,5 @@ public class SubCategory {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
-
-    public List<Article> getArticles() {
-        return articles;
-    }
-
-    public void setArticles(List<Article> articles) {
-        this.articles = articles;
-    }
 }
 
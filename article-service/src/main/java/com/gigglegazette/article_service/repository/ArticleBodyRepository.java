@@ -0,0 +1,7 @@
+package com.gigglegazette.article_service.repository;
+
+import com.gigglegazette.article_service.model.ArticleBody;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ArticleBodyRepository extends MongoRepository<ArticleBody, String> {
+}
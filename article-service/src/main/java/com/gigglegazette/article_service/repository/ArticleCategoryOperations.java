@@ -0,0 +1,51 @@
+package com.gigglegazette.article_service.repository;
+
+import com.gigglegazette.article_service.model.Article;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@code subCategoryId} and {@code categoryId} of articles in step with
+ * their subcategory, through the {@code subCategoryId} index.
+ */
+@Component
+public class ArticleCategoryOperations {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Move the articles of a subcategory to its new parent category.
+     *
+     * @param subCategoryId The ID of the subcategory.
+     * @param categoryId    The ID of its new parent category.
+     */
+    public void parentChanged(String subCategoryId, String categoryId) {
+        mongoTemplate.updateMulti(inSubCategory(subCategoryId),
+                changed(new Update().set("categoryId", new ObjectId(categoryId))), Article.class);
+    }
+
+    /**
+     * Unfile the articles of a deleted subcategory.
+     *
+     * @param subCategoryId The ID of the deleted subcategory.
+     */
+    public void subCategoryDeleted(String subCategoryId) {
+        mongoTemplate.updateMulti(inSubCategory(subCategoryId),
+                changed(new Update().unset("subCategoryId").unset("categoryId")), Article.class);
+    }
+
+    // Bump the version and updatedAt like any other write, so validators and cached responses change
+    private static Update changed(Update update) {
+        return update.inc("version", 1).currentDate("updatedAt");
+    }
+
+    private static Query inSubCategory(String subCategoryId) {
+        return new Query(Criteria.where("subCategoryId").is(new ObjectId(subCategoryId)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.gigglegazette.article_service.repository;
+
+import com.gigglegazette.article_service.model.Comment;
+import com.gigglegazette.article_service.model.Image;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the {@link com.gigglegazette.article_service.model.ArticleRef} copies embedded
+ * in comments and images in step with the article they point to.
+ */
+@Component
+public class ArticleRefOperations {
+
+    private static final List<Class<?>> REFERENCING_TYPES = List.of(Comment.class, Image.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Copy the new title of an article into every document that embeds it.
+     *
+     * @param articleId The ID of the renamed article.
+     * @param title     The new title.
+     */
+    public void titleChanged(String articleId, String title) {
+        Query query = new Query(Criteria.where("article._id").is(new ObjectId(articleId)));
+        for (Class<?> type : REFERENCING_TYPES) {
+            mongoTemplate.updateMulti(query, new Update().set("article.title", title), type);
+        }
+    }
+}
@@ -1,11 +1,26 @@
 package com.gigglegazette.article_service.repository;
 
 import com.gigglegazette.article_service.model.Article;
+import com.gigglegazette.article_service.model.ArticleRef;
+import com.gigglegazette.article_service.model.ArticleSummary;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ArticleRepository extends MongoRepository<Article, String> {
     Optional<List<Article>> findByAuthorId(String authorId);
+
+    // Only reads the ID and title, for embedding in comments and images
+    Optional<ArticleRef> findRefById(String id);
+
+    // Summary projections only read the fields declared on ArticleSummary; listings use ReactiveArticleRepository
+    List<ArticleSummary> findSummariesByIdIn(Collection<String> ids);
+
+    // Backed by a live cursor; callers must close the stream
+    @Meta(cursorBatchSize = 100)
+    Stream<Article> streamAllBy();
 }
@@ -0,0 +1,61 @@
+package com.gigglegazette.article_service.repository;
+
+import com.gigglegazette.article_service.model.Article;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keeps the comment count and last comment time stored on each article in step
+ * with its comments, so listings can show them without reading the comments collection.
+ * Each change is a single atomic update; the article is never read first.
+ */
+@Component
+public class CommentCountOperations {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Record a new comment on an article.
+     *
+     * @param articleId The ID of the commented article.
+     * @param postedAt  When the comment was posted.
+     */
+    public void commentAdded(String articleId, LocalDateTime postedAt) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(articleId)),
+                new Update().inc("commentCount", 1).max("lastCommentAt", postedAt), Article.class);
+    }
+
+    /**
+     * Record that a comment was deleted from an article. The count never drops below zero.
+     * The last comment time is left as it is.
+     *
+     * @param articleId The ID of the article the comment belonged to.
+     */
+    public void commentRemoved(String articleId) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(articleId).and("commentCount").gt(0)),
+                new Update().inc("commentCount", -1), Article.class);
+    }
+
+    /**
+     * Record that several comments were deleted from an article at once. The count never drops below zero.
+     *
+     * @param articleId The ID of the article the comments belonged to.
+     * @param count     The number of deleted comments.
+     */
+    public void commentsRemoved(String articleId, long count) {
+        boolean decremented = mongoTemplate.updateFirst(new Query(Criteria.where("id").is(articleId).and("commentCount").gte(count)),
+                new Update().inc("commentCount", -count), Article.class).getModifiedCount() > 0;
+        if (!decremented) {
+            // The count was already lower than the comments removed, such as while it was being migrated
+            mongoTemplate.updateFirst(new Query(Criteria.where("id").is(articleId).and("commentCount").gt(0)),
+                    new Update().set("commentCount", 0), Article.class);
+        }
+    }
+}
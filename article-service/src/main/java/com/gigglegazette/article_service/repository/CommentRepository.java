@@ -1,7 +1,8 @@
 package com.gigglegazette.article_service.repository;
 
 import com.gigglegazette.article_service.model.Comment;
-import com.gigglegazette.article_service.model.Image;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
@@ -10,4 +11,13 @@ import java.util.Optional;
 public interface CommentRepository extends MongoRepository<Comment, String> {
     List<Comment> findByArticle_Id(String articleId);
     Optional<List<Comment>> findByAuthorId(String authorId);
+
+    // Number of comments deleted, so concurrent deletes of the same comment can be told apart
+    long removeById(String id);
+
+    // Keyset pagination: the page size and _id sort come from the Pageable, never a skip
+    List<Comment> findByArticle_Id(String articleId, Pageable pageable);
+    List<Comment> findByArticle_IdAndIdLessThan(String articleId, ObjectId id, Pageable pageable);
+    List<Comment> findByAuthorId(String authorId, Pageable pageable);
+    List<Comment> findByAuthorIdAndIdLessThan(String authorId, ObjectId id, Pageable pageable);
 }
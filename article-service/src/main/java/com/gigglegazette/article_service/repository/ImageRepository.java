@@ -8,4 +8,6 @@ import java.util.List;
 public interface ImageRepository extends MongoRepository<Image,String> {
     List<Image> findByArticle_Id(String articleId);
 
+    boolean existsByIdAndBlobHashIsNotNull(String id);
+
 }
@@ -0,0 +1,28 @@
+package com.gigglegazette.article_service.repository;
+
+import com.gigglegazette.article_service.model.Article;
+import com.gigglegazette.article_service.model.ArticleSummary;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+/**
+ * Non-blocking finders for the article listings; the results are emitted as the
+ * driver receives them, without holding a request thread.
+ */
+public interface ReactiveArticleRepository extends ReactiveMongoRepository<Article, String> {
+    // Summary projections only read the fields declared on ArticleSummary
+    Flux<ArticleSummary> findSummariesByAuthorId(String authorId);
+    Flux<ArticleSummary> findSummariesByIdIn(Collection<String> ids);
+
+    // Keyset pagination: the page size and _id sort come from the Pageable, never a skip
+    Flux<ArticleSummary> findSummariesBy(Pageable pageable);
+    Flux<ArticleSummary> findSummariesByIdLessThan(ObjectId id, Pageable pageable);
+    Flux<ArticleSummary> findSummariesByTags(String tag, Pageable pageable);
+    Flux<ArticleSummary> findSummariesByTagsAndIdLessThan(String tag, ObjectId id, Pageable pageable);
+    Flux<ArticleSummary> findSummariesBySubCategoryId(String subCategoryId, Pageable pageable);
+    Flux<ArticleSummary> findSummariesBySubCategoryIdAndIdLessThan(String subCategoryId, ObjectId id, Pageable pageable);
+}
@@ -0,0 +1,17 @@
+package com.gigglegazette.article_service.repository;
+
+import com.gigglegazette.article_service.model.Comment;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking finders for the comment listing; the results are emitted as the
+ * driver receives them, without holding a request thread.
+ */
+public interface ReactiveCommentRepository extends ReactiveMongoRepository<Comment, String> {
+    // Keyset pagination: the page size and _id sort come from the Pageable, never a skip
+    Flux<Comment> findBy(Pageable pageable);
+    Flux<Comment> findByIdLessThan(ObjectId id, Pageable pageable);
+}
@@ -1,7 +1,16 @@
 package com.gigglegazette.article_service.repository;
 
 import com.gigglegazette.article_service.model.SubCategory;
+import com.gigglegazette.article_service.model.SubCategorySummary;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface SubCategoryRepository extends MongoRepository<SubCategory,String> {
+    // Summary projections name the parent category by ID instead of loading it
+    List<SubCategorySummary> findSummariesBy();
+    Optional<SubCategorySummary> findSummaryById(String id);
+    List<SubCategorySummary> findSummariesByIdIn(Collection<String> ids);
 }
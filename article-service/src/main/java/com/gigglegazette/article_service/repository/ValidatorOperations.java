@@ -0,0 +1,114 @@
+package com.gigglegazette.article_service.repository;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the HTTP validators (ETag and Last-Modified) of stored documents without
+ * loading them, so unchanged polls can be answered with 304 Not Modified.
+ * Validators are derived from the {@code updatedAt} field kept by auditing and by
+ * {@link PartialUpdateOperations}, plus the version and any other given fields.
+ */
+@Component
+public class ValidatorOperations {
+
+    private static final String UPDATED_AT = "updatedAt";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Look up the validator of a single document through the {@code _id} index,
+     * projecting only the fields the validator is built from.
+     *
+     * @param type   The document type.
+     * @param id     The ID of the document.
+     * @param fields Stored fields, besides {@code updatedAt} and the version, that change the response body.
+     * @return The validator, or empty if no document has that ID.
+     */
+    public Optional<Validator> forDocument(Class<?> type, String id, String... fields) {
+        if (!ObjectId.isValid(id)) return Optional.empty();
+        List<String> parts = new ArrayList<>(List.of(fields));
+        MongoPersistentProperty versionProperty = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(type).getVersionProperty();
+        if (versionProperty != null) parts.add(versionProperty.getFieldName());
+
+        List<String> projected = new ArrayList<>(parts);
+        projected.add(UPDATED_AT);
+        Document state = collection(type)
+                .find(new Document("_id", new ObjectId(id)))
+                .projection(Projections.include(projected))
+                .first();
+        if (state == null) return Optional.empty();
+
+        Validator validator = Validator.of(state.getDate(UPDATED_AT), state);
+        for (String part : parts) {
+            validator = validator.with(state.get(part));
+        }
+        return Optional.of(validator);
+    }
+
+    /**
+     * Build the validator of a list response from the newest {@code updatedAt} among the
+     * matching documents and their count, so deletions change it too. With an index on
+     * the filter fields followed by {@code updatedAt}, both are answered from the index alone.
+     *
+     * @param type   The document type.
+     * @param filter The filter of the list, in its mapped (stored) form.
+     * @return The validator of the list.
+     */
+    public Validator forQuery(Class<?> type, Bson filter) {
+        Document newest = collection(type)
+                .find(filter)
+                .sort(Sorts.descending(UPDATED_AT))
+                .projection(Projections.fields(Projections.include(UPDATED_AT), Projections.excludeId()))
+                .limit(1)
+                .first();
+        long count = collection(type).countDocuments(filter);
+        return Validator.of(newest == null ? null : newest.getDate(UPDATED_AT), new Document()).with(count);
+    }
+
+    private MongoCollection<Document> collection(Class<?> type) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(type));
+    }
+
+    /**
+     * A strong entity tag and the last modification time in epoch milliseconds (-1 if unknown),
+     * in the form {@link org.springframework.web.context.request.WebRequest#checkNotModified(String, long)} takes,
+     * along with the stored fields that were read to build them.
+     */
+    public record Validator(String etag, long lastModified, Document fields) {
+
+        static Validator of(Date updatedAt, Document fields) {
+            long lastModified = updatedAt == null ? -1 : updatedAt.getTime();
+            return new Validator(Long.toHexString(Math.max(lastModified, 0)), lastModified, fields);
+        }
+
+        /**
+         * @return A validator whose entity tag also changes with the given value.
+         */
+        public Validator with(Object part) {
+            return new Validator(etag + "-" + part, lastModified, fields);
+        }
+
+        /**
+         * @return The entity tag in its quoted header form.
+         */
+        public String quotedEtag() {
+            return "\"" + etag + "\"";
+        }
+    }
+}
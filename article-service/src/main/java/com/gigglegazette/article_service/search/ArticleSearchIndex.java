@@ -0,0 +1,297 @@
+package com.gigglegazette.article_service.search;
+
+import com.gigglegazette.article_service.model.Article;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over article titles, content and tags, ranked with BM25.
+ * Built from MongoDB at startup and kept current by the article write endpoints.
+ */
+@Component
+public class ArticleSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleSearchIndex.class);
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // A title or tag match counts as several content matches
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Each indexed article gets a dense ordinal; those of removed articles are reused, so
+    // the arrays stay as large as the most articles indexed at once, however often they change
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private String[] articleIds = new String[1024];
+    private int[] lengths = new int[1024];
+    private String[][] articleTerms = new String[1024][];
+    private int nextOrdinal;
+    private int articleCount;
+    private long totalLength;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        Query query = new Query();
+        query.fields().include("title", "content", "tags");
+        query.cursorBatchSize(500);
+        try (Stream<Article> articles = mongoTemplate.stream(query, Article.class)) {
+            articles.forEach(this::index);
+        }
+        logger.info("Search index built with {} articles and {} terms", articleCount, postings.size());
+    }
+
+    /**
+     * Add an article to the index, replacing any previously indexed version of it.
+     */
+    public void index(Article article) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, article.getTitle(), TITLE_WEIGHT);
+        addTerms(frequencies, article.getContent(), CONTENT_WEIGHT);
+        if (article.getTags() != null) {
+            article.getTags().forEach(tag -> addTerms(frequencies, tag, TAG_WEIGHT));
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(article.getId());
+            Integer free = freeOrdinals.poll();
+            int ordinal = free != null ? free : nextOrdinal++;
+            ensureCapacity(ordinal + 1);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(ordinal, entry.getValue());
+                length += entry.getValue();
+            }
+            ordinals.put(article.getId(), ordinal);
+            articleIds[ordinal] = article.getId();
+            lengths[ordinal] = length;
+            articleTerms[ordinal] = frequencies.keySet().toArray(new String[0]);
+            articleCount++;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an article from the index. Unknown IDs are ignored.
+     */
+    public void remove(String articleId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(articleId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rank the indexed articles against a free-text query.
+     *
+     * @param queryText The words to search for.
+     * @param offset    The number of top hits to skip, zero or more.
+     * @param limit     The maximum number of hits to return, one or more.
+     * @return The requested slice of hits, best first, and the total number of matching articles.
+     */
+    public SearchHits search(String queryText, int offset, int limit) {
+        Set<String> terms = new HashSet<>(tokenize(queryText));
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty() || articleCount == 0) {
+                return new SearchHits(List.of(), 0);
+            }
+            double averageLength = (double) totalLength / articleCount;
+            List<Postings> matchedPostings = new ArrayList<>(terms.size());
+            int postingCount = 0;
+            for (String term : terms) {
+                Postings termPostings = postings.get(term);
+                if (termPostings == null) continue;
+                matchedPostings.add(termPostings);
+                postingCount += termPostings.size;
+            }
+            // Sized by the matched postings, not by the index, so rare terms are cheap to search for
+            ScoreAccumulator scores = new ScoreAccumulator(postingCount);
+            for (Postings termPostings : matchedPostings) {
+                double idf = Math.log(1 + (articleCount - termPostings.size + 0.5) / (termPostings.size + 0.5));
+                for (int i = 0; i < termPostings.size; i++) {
+                    int ordinal = termPostings.ordinals[i];
+                    int frequency = termPostings.frequencies[i];
+                    scores.add(ordinal, idf * frequency * (K1 + 1)
+                            / (frequency + K1 * (1 - B + B * lengths[ordinal] / averageLength)));
+                }
+            }
+
+            if (offset >= scores.size) {
+                return new SearchHits(List.of(), scores.size);
+            }
+            // Keep only the best offset + limit hits in a min-heap of accumulator slots; never more than match
+            int wanted = (int) Math.min((long) offset + limit, scores.size);
+            PriorityQueue<Integer> top = new PriorityQueue<>(Comparator.comparingDouble(slot -> scores.scores[slot]));
+            for (int slot = 0; slot < scores.ordinals.length; slot++) {
+                if (scores.ordinals[slot] == ScoreAccumulator.EMPTY) continue;
+                if (top.size() < wanted) {
+                    top.add(slot);
+                } else if (scores.scores[slot] > scores.scores[top.peek()]) {
+                    top.poll();
+                    top.add(slot);
+                }
+            }
+            List<SearchHit> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                int slot = top.poll();
+                hits.add(new SearchHit(articleIds[scores.ordinals[slot]], scores.scores[slot]));
+            }
+            Collections.reverse(hits);
+            List<SearchHit> page = offset >= hits.size() ? List.of() : hits.subList(offset, hits.size());
+            return new SearchHits(page, scores.size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() >= MIN_TOKEN_LENGTH) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String token : tokenize(text)) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private void removeLocked(String articleId) {
+        Integer ordinal = ordinals.remove(articleId);
+        if (ordinal == null) return;
+        for (String term : articleTerms[ordinal]) {
+            Postings termPostings = postings.get(term);
+            termPostings.remove(ordinal);
+            if (termPostings.size == 0) postings.remove(term);
+        }
+        totalLength -= lengths[ordinal];
+        articleCount--;
+        articleIds[ordinal] = null;
+        articleTerms[ordinal] = null;
+        lengths[ordinal] = 0;
+        freeOrdinals.push(ordinal);
+    }
+
+    /**
+     * @return The number of ordinals handed out, free or not, which the per-article arrays must hold.
+     */
+    int ordinalCount() {
+        lock.readLock().lock();
+        try {
+            return nextOrdinal;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= articleIds.length) return;
+        int newCapacity = Math.max(capacity, articleIds.length * 2);
+        articleIds = Arrays.copyOf(articleIds, newCapacity);
+        lengths = Arrays.copyOf(lengths, newCapacity);
+        articleTerms = Arrays.copyOf(articleTerms, newCapacity);
+    }
+
+    /**
+     * Article ordinals containing one term, with the weighted term frequency in each.
+     */
+    private static final class Postings {
+        int[] ordinals = new int[4];
+        int[] frequencies = new int[4];
+        int size;
+
+        void add(int ordinal, int frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) {
+                    // Order does not matter, so fill the gap with the last entry
+                    size--;
+                    ordinals[i] = ordinals[size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * BM25 scores of the articles matched by one query, in an open-addressing table keyed by
+     * ordinal. It holds at most as many articles as the query terms have postings.
+     */
+    private static final class ScoreAccumulator {
+        static final int EMPTY = -1;
+
+        final int[] ordinals;
+        final double[] scores;
+        int size;
+
+        ScoreAccumulator(int maxEntries) {
+            // At most half full, so probe sequences stay short
+            int capacity = Integer.highestOneBit(Math.max(1, maxEntries) * 2 - 1) << 1;
+            ordinals = new int[capacity];
+            scores = new double[capacity];
+            Arrays.fill(ordinals, EMPTY);
+        }
+
+        void add(int ordinal, double score) {
+            int mask = ordinals.length - 1;
+            int slot = (ordinal * 0x9E3779B9) >>> 1 & mask;
+            while (ordinals[slot] != ordinal) {
+                if (ordinals[slot] == EMPTY) {
+                    ordinals[slot] = ordinal;
+                    size++;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            scores[slot] += score;
+        }
+    }
+
+    public record SearchHit(String articleId, double score) {
+    }
+
+    public record SearchHits(List<SearchHit> hits, int total) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.gigglegazette.article_service.search;
+
+/**
+ * Maps article IDs to int ordinals with open addressing, so a lookup neither boxes the
+ * ordinal nor allocates, and the map holds two arrays instead of an entry object per article.
+ * Not thread-safe; the owning index guards it with its lock.
+ */
+final class OrdinalMap {
+
+    static final int ABSENT = -1;
+
+    private String[] keys = new String[256];
+    private int[] values = new int[256];
+    private int size;
+
+    /**
+     * @return The ordinal of the ID, or {@link #ABSENT}.
+     */
+    int get(String key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); keys[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot].equals(key)) return values[slot];
+        }
+        return ABSENT;
+    }
+
+    void put(String key, int value) {
+        // At most half full, so probe runs stay short
+        if ((size + 1) * 2 > keys.length) grow();
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != null) {
+            if (keys[slot].equals(key)) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * @return The ordinal the ID had, or {@link #ABSENT}.
+     */
+    int remove(String key) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != null && !keys[slot].equals(key)) slot = (slot + 1) & mask;
+        if (keys[slot] == null) return ABSENT;
+        int removed = values[slot];
+
+        // Shift later entries of the probe run back into the gap, so lookups never stop early
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+            int home = slot(keys[next], mask);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = null;
+        size--;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new String[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private static int slot(String key, int mask) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,122 @@
+package com.gigglegazette.article_service.search;
+
+import com.gigglegazette.article_service.model.Article;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Number of articles per tag, kept in memory so the tag cloud never needs an aggregation.
+ * Each distinct tag string is stored once and mapped to a dense id; counts live in an int array
+ * indexed by that id. The tags of every article are remembered as id arrays so that updates
+ * and deletes can adjust only the counts that changed.
+ */
+@Component
+public class TagIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagIndex.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> tagIds = new HashMap<>();
+    private String[] tags = new String[256];
+    private int[] counts = new int[256];
+    private int tagCount;
+
+    private final Map<String, int[]> articleTags = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        Query query = new Query();
+        query.fields().include("tags");
+        query.cursorBatchSize(500);
+        try (Stream<Article> articles = mongoTemplate.stream(query, Article.class)) {
+            articles.forEach(this::index);
+        }
+        logger.info("Tag index built with {} tags over {} articles", tagCount, articleTags.size());
+    }
+
+    /**
+     * Record the current tags of an article, replacing whatever was recorded for it before.
+     */
+    public void index(Article article) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(article.getId());
+            if (article.getTags() == null) return;
+            int[] ids = article.getTags().stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .mapToInt(this::tagIdLocked)
+                    .toArray();
+            for (int id : ids) counts[id]++;
+            articleTags.put(article.getId(), ids);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forget an article. Unknown IDs are ignored.
+     */
+    public void remove(String articleId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(articleId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param limit The maximum number of tags to return, or 0 for all of them.
+     * @return Tags used by at least one article, most used first.
+     */
+    public List<TagCount> facets(int limit) {
+        lock.readLock().lock();
+        try {
+            List<TagCount> facets = new ArrayList<>();
+            for (int id = 0; id < tagCount; id++) {
+                if (counts[id] > 0) facets.add(new TagCount(tags[id], counts[id]));
+            }
+            facets.sort(Comparator.comparingInt(TagCount::count).reversed().thenComparing(TagCount::tag));
+            return limit > 0 && facets.size() > limit ? facets.subList(0, limit) : facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int tagIdLocked(String tag) {
+        Integer id = tagIds.get(tag);
+        if (id != null) return id;
+        if (tagCount == tags.length) {
+            tags = Arrays.copyOf(tags, tagCount * 2);
+            counts = Arrays.copyOf(counts, tagCount * 2);
+        }
+        tags[tagCount] = tag;
+        tagIds.put(tag, tagCount);
+        return tagCount++;
+    }
+
+    private void removeLocked(String articleId) {
+        int[] ids = articleTags.remove(articleId);
+        if (ids == null) return;
+        for (int id : ids) counts[id]--;
+    }
+
+    public record TagCount(String tag, int count) {
+    }
+}
@@ -0,0 +1,619 @@
+package com.gigglegazette.article_service.search;
+
+import com.gigglegazette.article_service.model.Article;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Articles ranked by recent activity, kept in memory so the trending list never needs a query.
+ * Every like, comment and view adds to an article's score, and scores halve every {@code trendingHalfLife}.
+ * <p>
+ * Scores use forward decay: an event at time t adds {@code weight * 2^((t - landmark) / halfLife)},
+ * so older events never have to be revisited and the ranking only changes when an event arrives.
+ * Articles are mapped to dense ids and their scores live in a double array. A bounded min-heap
+ * per category, and one over all articles, holds the current top articles; an article that
+ * gains a point only has to beat the smallest score of its heaps.
+ * <p>
+ * Events are buffered per article, the way likes and views are counted, and applied to the
+ * index every {@code trendingApplyInterval}, so recording one never takes the index lock.
+ * The title, author and category of newly ranked articles are read then, in one query.
+ * <p>
+ * At each checkpoint, every instance adds what its own events contributed since its previous
+ * checkpoint to the shared scores in {@code trending_scores}, decaying the stored score to now
+ * in the same update, and reads the merged scores back. Scores are restored from there at
+ * startup. Articles whose score has decayed to almost nothing are dropped.
+ */
+@Component
+public class TrendingIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingIndex.class);
+
+    public static final double LIKE_WEIGHT = 1;
+    public static final double COMMENT_WEIGHT = 3;
+    public static final double VIEW_WEIGHT = 0.1;
+
+    private static final String COLLECTION = "trending_scores";
+    private static final String ALL_CATEGORIES = "";
+    // Below this a score is forgotten; a single view decays to it after about three half-lives
+    private static final double PRUNE_SCORE = 0.01;
+    // Move the landmark forward before the forward-decayed scores get close to overflowing
+    private static final double MAX_EXPONENT = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final double decayRate;
+    private final int topK;
+    private final Clock clock;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Only moved by restore() and checkpoint(), which never run alongside applyPending()
+    private volatile long landmark;
+    private final ConcurrentHashMap<String, PendingScore> pending = new ConcurrentHashMap<>();
+
+    private final OrdinalMap ordinals = new OrdinalMap();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private String[] articleIds = new String[256];
+    private String[] titles = new String[256];
+    private String[] authorIds = new String[256];
+    private String[] categoryIds = new String[256];
+    private double[] scores = new double[256];
+    // What this instance's events added to each score since its last checkpoint
+    private double[] unsaved = new double[256];
+    // Position of each article in the heap over all articles and in the heap of its category, or -1
+    private int[] globalPositions = new int[256];
+    private int[] categoryPositions = new int[256];
+    private int size;
+    private final BitSet dirty = new BitSet();
+    private final Set<String> removedSinceCheckpoint = new HashSet<>();
+
+    private final TopK globalTop;
+    private final Map<String, TopK> categoryTops = new HashMap<>();
+
+    @Autowired
+    public TrendingIndex(@Value("${gigglegazette.app.trendingHalfLife:PT6H}") Duration halfLife,
+                         @Value("${gigglegazette.app.trendingTopK:50}") int topK) {
+        this(halfLife, topK, Clock.systemDefaultZone());
+    }
+
+    TrendingIndex(Duration halfLife, int topK, Clock clock) {
+        this.decayRate = Math.log(2) / halfLife.toMillis();
+        this.topK = topK;
+        this.clock = clock;
+        this.landmark = clock.millis();
+        this.globalTop = new TopK(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void restore() {
+        long now = clock.millis();
+        int restored = 0;
+        lock.writeLock().lock();
+        try (Stream<Document> checkpoint = mongoTemplate.stream(new Query(), Document.class, COLLECTION)) {
+            moveLandmarkLocked(now);
+            for (Iterator<Document> iterator = checkpoint.iterator(); iterator.hasNext(); ) {
+                Document entry = iterator.next();
+                String articleId = ((ObjectId) entry.get("_id")).toHexString();
+                int ordinal = ordinals.get(articleId);
+                if (ordinal == OrdinalMap.ABSENT) {
+                    ordinal = addLocked(articleId, entry.getString("title"), entry.getString("authorId"), entry.getString("categoryId"));
+                }
+                // Events applied before the checkpoint was read are kept on top of it
+                scores[ordinal] = storedScore(entry) + unsaved[ordinal];
+                offerLocked(ordinal);
+                restored++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Trending index restored with {} articles", restored);
+    }
+
+    /**
+     * Record likes or unlikes of an article.
+     */
+    public void liked(String articleId, int delta) {
+        record(articleId, LIKE_WEIGHT * delta, clock.millis());
+    }
+
+    /**
+     * Record a comment posted on an article.
+     */
+    public void commented(String articleId) {
+        record(articleId, COMMENT_WEIGHT, clock.millis());
+    }
+
+    /**
+     * Take back a deleted comment, as much as it still counts since it was posted.
+     */
+    public void uncommented(String articleId, LocalDateTime postedAt) {
+        long at = postedAt == null ? clock.millis() : postedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        record(articleId, -COMMENT_WEIGHT, at);
+    }
+
+    /**
+     * Record a view of an article.
+     */
+    public void viewed(String articleId) {
+        record(articleId, VIEW_WEIGHT, clock.millis());
+    }
+
+    /**
+     * Update the title and category shown for an article, if it is ranked.
+     */
+    public void articleChanged(Article article) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinals.get(article.getId());
+            if (ordinal == OrdinalMap.ABSENT) return;
+            if (article.getTitle() != null) titles[ordinal] = article.getTitle();
+            if (!Objects.equals(categoryIds[ordinal], article.getCategoryId())) {
+                categoryTopLocked(categoryIds[ordinal]).remove(ordinal);
+                categoryIds[ordinal] = article.getCategoryId();
+                categoryTopLocked(categoryIds[ordinal]).offer(ordinal);
+            }
+            dirty.set(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forget a deleted article. Unknown IDs are ignored.
+     */
+    public void remove(String articleId) {
+        if (!ObjectId.isValid(articleId)) return;
+        pending.remove(articleId);
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinals.get(articleId);
+            if (ordinal != OrdinalMap.ABSENT) removeLocked(ordinal);
+            // Another instance may have ranked it
+            removedSinceCheckpoint.add(articleId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param categoryId The category to rank within, or null for all articles.
+     * @param limit      The maximum number of articles to return.
+     * @return The highest scoring articles, highest first, with their current scores.
+     */
+    public List<TrendingArticle> top(String categoryId, int limit) {
+        lock.readLock().lock();
+        try {
+            double decay = Math.exp(-decayRate * (clock.millis() - landmark));
+            TopK heap = categoryId == null ? globalTop : categoryTops.get(categoryId);
+            if (heap == null) return List.of();
+            Integer[] members = new Integer[heap.size];
+            for (int i = 0; i < heap.size; i++) members[i] = heap.heap[i];
+            Arrays.sort(members, (a, b) -> Double.compare(scores[b], scores[a]));
+            List<TrendingArticle> top = new ArrayList<>(Math.min(limit, members.length));
+            for (int i = 0; i < members.length && i < limit; i++) {
+                int ordinal = members[i];
+                top.add(new TrendingArticle(articleIds[ordinal], titles[ordinal], authorIds[ordinal],
+                        categoryIds[ordinal], scores[ordinal] * decay));
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The largest number of articles ranked per category.
+     */
+    public int getTopK() {
+        return topK;
+    }
+
+    /**
+     * Add the events recorded since the last call to the index. Articles seen for the first
+     * time are looked up together; those that no longer exist are ignored.
+     */
+    @Scheduled(fixedDelayString = "${gigglegazette.app.trendingApplyInterval:PT1S}")
+    public synchronized void applyPending() {
+        if (pending.isEmpty()) return;
+        Map<String, Double> boosts = new HashMap<>();
+        for (String articleId : pending.keySet()) {
+            PendingScore[] drained = new PendingScore[1];
+            pending.computeIfPresent(articleId, (key, score) -> {
+                drained[0] = score;
+                return null;
+            });
+            if (drained[0] != null) boosts.put(articleId, drained[0].relativeTo(landmark));
+        }
+
+        List<ObjectId> unranked = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            boosts.forEach((articleId, boost) -> {
+                // Nothing to take away from an article that is not ranked
+                if (boost > 0 && ordinals.get(articleId) == OrdinalMap.ABSENT) unranked.add(new ObjectId(articleId));
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<String, Document> articles = new HashMap<>();
+        if (!unranked.isEmpty()) {
+            Query query = new Query(Criteria.where("_id").in(unranked));
+            query.fields().include("title").include("authorId").include("categoryId");
+            try {
+                for (Document article : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Article.class))) {
+                    articles.put(article.getObjectId("_id").toHexString(), article);
+                }
+            } catch (RuntimeException e) {
+                // Keep their events for the next round
+                for (ObjectId id : unranked) record(id.toHexString(), boosts.remove(id.toHexString()), landmark);
+                logger.warn("Could not look up {} newly trending articles, will retry: {}", unranked.size(), e.getMessage());
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            boosts.forEach((articleId, boost) -> {
+                int ordinal = ordinals.get(articleId);
+                if (ordinal == OrdinalMap.ABSENT) {
+                    Document article = articles.get(articleId);
+                    if (article == null) return;
+                    Object categoryId = article.get("categoryId");
+                    ordinal = addLocked(articleId, article.getString("title"), article.getString("authorId"),
+                            categoryId == null ? null : categoryId.toString());
+                }
+                addScoreLocked(ordinal, boost);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add what this instance's events contributed since the last checkpoint to the shared
+     * scores, read back the merged scores of those articles, and drop the articles whose score
+     * has decayed away. Heaps are then rebuilt from all scores, which also restores any article
+     * that should have replaced one whose score went down.
+     */
+    @Scheduled(fixedDelayString = "${gigglegazette.app.trendingCheckpointInterval:PT1M}")
+    public synchronized void checkpoint() {
+        applyPending();
+        long now = clock.millis();
+        Map<String, Document> changed = new HashMap<>();
+        List<String> pruned = new ArrayList<>();
+        Set<String> removed;
+        lock.writeLock().lock();
+        try {
+            if (decayRate * (now - landmark) > MAX_EXPONENT) moveLandmarkLocked(now);
+            double decay = Math.exp(-decayRate * (now - landmark));
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                if (articleIds[ordinal] == null) continue;
+                if (scores[ordinal] * decay < PRUNE_SCORE) {
+                    pruned.add(articleIds[ordinal]);
+                    removeLocked(ordinal);
+                } else if (dirty.get(ordinal)) {
+                    changed.put(articleIds[ordinal], new Document("delta", unsaved[ordinal] * decay)
+                            .append("title", titles[ordinal])
+                            .append("authorId", authorIds[ordinal])
+                            .append("categoryId", categoryIds[ordinal]));
+                    unsaved[ordinal] = 0;
+                }
+            }
+            dirty.clear();
+            removed = new HashSet<>(removedSinceCheckpoint);
+            removedSinceCheckpoint.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Document> merged = List.of();
+        if (!changed.isEmpty() || !removed.isEmpty() || !pruned.isEmpty()) {
+            Date at = new Date(now);
+            try {
+                BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+                changed.forEach((articleId, entry) -> bulkOps.upsert(
+                        new Query(Criteria.where("_id").is(new ObjectId(articleId))), mergeUpdate(entry, at)));
+                for (String articleId : removed) {
+                    bulkOps.remove(new Query(Criteria.where("_id").is(new ObjectId(articleId))));
+                }
+                for (String articleId : pruned) {
+                    // Other instances may have added to it; only drop the score if it decayed away there too
+                    bulkOps.remove(new Query(new Criteria().andOperator(
+                            Criteria.where("_id").is(new ObjectId(articleId)),
+                            Criteria.expr(storedScoreBelow(PRUNE_SCORE, at)))));
+                }
+                bulkOps.execute();
+                if (!changed.isEmpty()) {
+                    List<ObjectId> ids = changed.keySet().stream().map(ObjectId::new).toList();
+                    merged = mongoTemplate.find(new Query(Criteria.where("_id").in(ids)), Document.class, COLLECTION);
+                }
+            } catch (RuntimeException e) {
+                requeue(changed, removed, now);
+                logger.warn("Could not checkpoint {} trending scores, will retry: {}", changed.size(), e.getMessage());
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Document entry : merged) {
+                int ordinal = ordinals.get(((ObjectId) entry.get("_id")).toHexString());
+                if (ordinal != OrdinalMap.ABSENT) scores[ordinal] = storedScore(entry) + unsaved[ordinal];
+            }
+            rebuildHeapsLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Decays the stored score to the checkpoint time and adds this instance's share, in one update on the server
+    private AggregationUpdate mergeUpdate(Document entry, Date at) {
+        Document score = new Document("$max", List.of(0,
+                new Document("$add", List.of(storedScoreAt(at), entry.getDouble("delta")))));
+        Document fields = new Document("score", score)
+                .append("at", new Document("$literal", at))
+                .append("title", new Document("$literal", entry.getString("title")))
+                .append("authorId", new Document("$literal", entry.getString("authorId")))
+                .append("categoryId", new Document("$literal", entry.getString("categoryId")));
+        return AggregationUpdate.from(List.<AggregationOperation>of(context -> new Document("$set", fields)));
+    }
+
+    private AggregationExpression storedScoreBelow(double threshold, Date at) {
+        return context -> new Document("$lt", List.of(storedScoreAt(at), threshold));
+    }
+
+    // The stored score decayed from the time it was written to the given time; zero if there is none
+    private Document storedScoreAt(Date at) {
+        return new Document("$multiply", List.of(
+                new Document("$ifNull", List.of("$score", 0)),
+                new Document("$exp", new Document("$multiply", List.of(decayRate,
+                        new Document("$subtract", List.of(new Document("$ifNull", List.of("$at", at)), at)))))));
+    }
+
+    // A stored score as of the landmark
+    private double storedScore(Document entry) {
+        return entry.getDouble("score") * Math.exp(decayRate * (entry.getDate("at").getTime() - landmark));
+    }
+
+    private void requeue(Map<String, Document> changed, Set<String> removed, long at) {
+        lock.writeLock().lock();
+        try {
+            changed.forEach((articleId, entry) -> {
+                int ordinal = ordinals.get(articleId);
+                if (ordinal == OrdinalMap.ABSENT) return;
+                unsaved[ordinal] += entry.getDouble("delta") * Math.exp(decayRate * (at - landmark));
+                dirty.set(ordinal);
+            });
+            removedSinceCheckpoint.addAll(removed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void record(String articleId, double weight, long at) {
+        if (!ObjectId.isValid(articleId)) return;
+        // compute() runs under the entry's lock, so no event is added to a buffer being applied
+        pending.compute(articleId, (key, score) -> {
+            if (score == null) score = new PendingScore(at);
+            score.add(weight, at);
+            return score;
+        });
+    }
+
+    // Multiplying every score by the same factor keeps the ranking as it is
+    private void moveLandmarkLocked(long to) {
+        double shift = Math.exp(decayRate * (landmark - to));
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            scores[ordinal] *= shift;
+            unsaved[ordinal] *= shift;
+        }
+        landmark = to;
+    }
+
+    private void addScoreLocked(int ordinal, double boost) {
+        double before = scores[ordinal];
+        scores[ordinal] = Math.max(0, before + boost);
+        unsaved[ordinal] += scores[ordinal] - before;
+        dirty.set(ordinal);
+        offerLocked(ordinal);
+    }
+
+    private int addLocked(String articleId, String title, String authorId, String categoryId) {
+        Integer free = freeOrdinals.poll();
+        int ordinal;
+        if (free != null) {
+            ordinal = free;
+        } else {
+            if (size == articleIds.length) growLocked();
+            ordinal = size++;
+        }
+        ordinals.put(articleId, ordinal);
+        articleIds[ordinal] = articleId;
+        titles[ordinal] = title;
+        authorIds[ordinal] = authorId;
+        categoryIds[ordinal] = categoryId;
+        scores[ordinal] = 0;
+        unsaved[ordinal] = 0;
+        globalPositions[ordinal] = -1;
+        categoryPositions[ordinal] = -1;
+        return ordinal;
+    }
+
+    private void removeLocked(int ordinal) {
+        globalTop.remove(ordinal);
+        categoryTopLocked(categoryIds[ordinal]).remove(ordinal);
+        ordinals.remove(articleIds[ordinal]);
+        articleIds[ordinal] = null;
+        titles[ordinal] = null;
+        authorIds[ordinal] = null;
+        categoryIds[ordinal] = null;
+        scores[ordinal] = 0;
+        unsaved[ordinal] = 0;
+        dirty.clear(ordinal);
+        freeOrdinals.push(ordinal);
+    }
+
+    private void offerLocked(int ordinal) {
+        globalTop.offer(ordinal);
+        categoryTopLocked(categoryIds[ordinal]).offer(ordinal);
+    }
+
+    private void rebuildHeapsLocked() {
+        globalTop.clear();
+        categoryTops.clear();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (articleIds[ordinal] != null) offerLocked(ordinal);
+        }
+    }
+
+    private TopK categoryTopLocked(String categoryId) {
+        return categoryTops.computeIfAbsent(categoryId == null ? ALL_CATEGORIES : categoryId, key -> new TopK(false));
+    }
+
+    private void growLocked() {
+        int capacity = articleIds.length * 2;
+        articleIds = Arrays.copyOf(articleIds, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        authorIds = Arrays.copyOf(authorIds, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        scores = Arrays.copyOf(scores, capacity);
+        unsaved = Arrays.copyOf(unsaved, capacity);
+        globalPositions = Arrays.copyOf(globalPositions, capacity);
+        categoryPositions = Arrays.copyOf(categoryPositions, capacity);
+    }
+
+    /**
+     * The events of one article that were not applied yet, as one score forward-decayed from
+     * the time of the first of them. Only changed inside {@code pending.compute}.
+     */
+    private final class PendingScore {
+
+        private final long base;
+        private double boost;
+
+        PendingScore(long base) {
+            this.base = base;
+        }
+
+        void add(double weight, long at) {
+            boost += weight * Math.exp(decayRate * (at - base));
+        }
+
+        double relativeTo(long landmark) {
+            return boost * Math.exp(decayRate * (base - landmark));
+        }
+    }
+
+    /**
+     * A min-heap of at most {@code topK} article ordinals ordered by score, so the weakest
+     * member is always at the root. Each ordinal's position is tracked to update it in place.
+     */
+    private final class TopK {
+
+        private final boolean global;
+        private int[] heap = new int[Math.min(topK, 64)];
+        private int size;
+
+        TopK(boolean global) {
+            this.global = global;
+        }
+
+        private int[] positions() {
+            return global ? globalPositions : categoryPositions;
+        }
+
+        void offer(int ordinal) {
+            int position = positions()[ordinal];
+            if (position >= 0) {
+                // Already a member: its score changed, so restore the heap order around it
+                siftUp(siftDown(position));
+            } else if (size < topK) {
+                if (size == heap.length) heap = Arrays.copyOf(heap, Math.min(topK, size * 2));
+                heap[size] = ordinal;
+                positions()[ordinal] = size;
+                siftUp(size++);
+            } else if (scores[ordinal] > scores[heap[0]]) {
+                positions()[heap[0]] = -1;
+                heap[0] = ordinal;
+                positions()[ordinal] = 0;
+                siftDown(0);
+            }
+        }
+
+        void remove(int ordinal) {
+            int position = positions()[ordinal];
+            if (position < 0) return;
+            positions()[ordinal] = -1;
+            size--;
+            if (position == size) return;
+            heap[position] = heap[size];
+            positions()[heap[position]] = position;
+            siftUp(siftDown(position));
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) positions()[heap[i]] = -1;
+            size = 0;
+        }
+
+        private int siftDown(int position) {
+            while (true) {
+                int smallest = position;
+                int left = 2 * position + 1;
+                int right = left + 1;
+                if (left < size && scores[heap[left]] < scores[heap[smallest]]) smallest = left;
+                if (right < size && scores[heap[right]] < scores[heap[smallest]]) smallest = right;
+                if (smallest == position) return position;
+                swap(position, smallest);
+                position = smallest;
+            }
+        }
+
+        private void siftUp(int position) {
+            while (position > 0) {
+                int parent = (position - 1) / 2;
+                if (scores[heap[position]] >= scores[heap[parent]]) return;
+                swap(position, parent);
+                position = parent;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int ordinal = heap[a];
+            heap[a] = heap[b];
+            heap[b] = ordinal;
+            positions()[heap[a]] = a;
+            positions()[heap[b]] = b;
+        }
+    }
+
+    /**
+     * A ranked article as shown in the trending list, with its score as of now.
+     */
+    public record TrendingArticle(String id, String title, String authorId, String categoryId, double score) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.gigglegazette.article_service.service;
+
+import com.gigglegazette.article_service.model.Article;
+import com.gigglegazette.article_service.model.ArticleBody;
+import com.gigglegazette.article_service.repository.ArticleBodyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores the HTML of each article once, gzip-compressed, in {@code article_bodies}. The article
+ * document itself does not hold the HTML, so reads that do not need it never load it.
+ */
+@Service
+public class ArticleBodyService {
+
+    // Bodies are compressed once per write and served many times, so spend the CPU on the best ratio
+    private static final int COMPRESSION_LEVEL = Deflater.BEST_COMPRESSION;
+
+    @Autowired
+    private ArticleBodyRepository articleBodyRepository;
+
+    /**
+     * Compress the HTML of an article and store it, replacing any previous body.
+     *
+     * @param articleId The ID of the article.
+     * @param html      The uncompressed HTML of the article.
+     * @return The stored body.
+     */
+    public ArticleBody save(String articleId, String html) {
+        return articleBodyRepository.save(compress(articleId, html));
+    }
+
+    /**
+     * Put back the body an article had before a write that did not go through.
+     *
+     * @param articleId The ID of the article.
+     * @param previous  The body read before the write, or empty if the article had none.
+     */
+    public void restore(String articleId, Optional<ArticleBody> previous) {
+        if (previous.isPresent()) {
+            articleBodyRepository.save(previous.get());
+        } else {
+            articleBodyRepository.deleteById(articleId);
+        }
+    }
+
+    /**
+     * Build the compressed body of an article without storing it.
+     *
+     * @param articleId The ID of the article.
+     * @param html      The uncompressed HTML of the article.
+     * @return The compressed body.
+     */
+    public static ArticleBody compress(String articleId, String html) {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        return new ArticleBody(articleId, gzip(bytes), bytes.length, hash(bytes), LocalDateTime.now());
+    }
+
+    /**
+     * Fetch the compressed body of an article.
+     *
+     * @param articleId The ID of the article.
+     * @return The stored body, or empty if the article has none.
+     */
+    public Optional<ArticleBody> findById(String articleId) {
+        return articleBodyRepository.findById(articleId);
+    }
+
+    /**
+     * Fill in the HTML of several articles from their bodies, read with a single query.
+     * Articles without a body are left without HTML.
+     *
+     * @param articles The articles, as read from {@code articles}.
+     */
+    public void attachHtml(List<Article> articles) {
+        Map<String, ArticleBody> bodies = new HashMap<>();
+        articleBodyRepository.findAllById(articles.stream().map(Article::getId).toList())
+                .forEach(body -> bodies.put(body.getId(), body));
+        for (Article article : articles) {
+            ArticleBody body = bodies.get(article.getId());
+            if (body != null) article.setHtmlContent(html(body));
+        }
+    }
+
+    /**
+     * Delete the body of an article.
+     *
+     * @param articleId The ID of the article.
+     */
+    public void deleteById(String articleId) {
+        articleBodyRepository.deleteById(articleId);
+    }
+
+    /**
+     * Inflate a stored body for clients that do not accept gzip.
+     *
+     * @param body The stored body.
+     * @return The uncompressed UTF-8 HTML.
+     */
+    public static byte[] decompress(ArticleBody body) {
+        return gunzip(body.getGzipHtml(), body.getHtmlLength());
+    }
+
+    /**
+     * @param body The stored body.
+     * @return The HTML of the article.
+     */
+    public static String html(ArticleBody body) {
+        return new String(decompress(body), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compress bytes with gzip at the level used for article bodies.
+     */
+    public static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {{ def.setLevel(COMPRESSION_LEVEL); }}) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Not thrown by in-memory streams
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Inflate gzip-compressed bytes.
+     *
+     * @param gzipped The compressed bytes.
+     * @param length  The uncompressed length.
+     */
+    public static byte[] gunzip(byte[] gzipped, int length) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return gzip.readNBytes(length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // First 128 bits of the SHA-256 of the HTML, base64url encoded
+    private static String hash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.gigglegazette.article_service.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gigglegazette.article_service.model.Article;
+import com.gigglegazette.article_service.model.ArticleBody;
+import com.gigglegazette.article_service.model.ArticleSummary;
+import com.gigglegazette.article_service.model.SubCategorySummary;
+import com.gigglegazette.article_service.repository.SubCategoryRepository;
+import com.gigglegazette.article_service.search.ArticleSearchIndex;
+import com.gigglegazette.article_service.search.TagIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Imports many articles in one request. Articles are read one at a time from a JSON array
+ * or newline-delimited JSON, validated like {@code POST /articles}, and inserted in chunks
+ * with unordered bulk writes, so one invalid or conflicting article does not stop the others.
+ * Authors and subcategories are looked up once per chunk for all of its articles.
+ */
+@Service
+public class ArticleBulkImportService {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    @Autowired
+    private ReactiveUserClientService reactiveUserClientService;
+
+    @Autowired
+    private ArticleSearchIndex articleSearchIndex;
+
+    @Autowired
+    private TagIndex tagIndex;
+
+    @Value("${gigglegazette.app.bulkInsertChunkSize:500}")
+    private int chunkSize;
+
+    /**
+     * Read, validate and insert articles until the end of the input.
+     *
+     * @param content A JSON array of articles, or one JSON article per line.
+     * @return The outcome of every article, in input order.
+     */
+    public Result importArticles(InputStream content) throws IOException {
+        List<ItemResult> results = new ArrayList<>();
+        List<Pending> chunk = new ArrayList<>(chunkSize);
+        // A top-level array is unwrapped, so both input forms are read the same way
+        try (MappingIterator<Article> articles = objectMapper.readerFor(Article.class).readValues(content)) {
+            int index = 0;
+            while (true) {
+                try {
+                    if (!articles.hasNextValue()) break;
+                    Article article = articles.nextValue();
+                    List<Map<String, String>> errors = validate(article);
+                    if (errors.isEmpty()) {
+                        chunk.add(new Pending(index, article));
+                    } else {
+                        results.add(ItemResult.failed(index, "Validation Failed", errors));
+                    }
+                } catch (JsonParseException e) {
+                    // Malformed JSON cannot be resynchronized; everything read so far is still imported
+                    results.add(ItemResult.failed(index, "Malformed JSON: " + e.getOriginalMessage(), null));
+                    break;
+                } catch (JsonMappingException e) {
+                    results.add(ItemResult.failed(index, "Invalid article: " + e.getOriginalMessage(), null));
+                }
+                index++;
+                if (chunk.size() == chunkSize) {
+                    results.addAll(insert(chunk));
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(insert(chunk));
+        }
+        results.sort(Comparator.comparingInt(ItemResult::index));
+        int inserted = (int) results.stream().filter(ItemResult::success).count();
+        return new Result(inserted, results.size() - inserted, results);
+    }
+
+    private List<Map<String, String>> validate(Article article) {
+        List<Map<String, String>> errorDetails = new ArrayList<>();
+        for (ConstraintViolation<Article> violation : validator.validate(article)) {
+            Map<String, String> errorDetail = new HashMap<>();
+            errorDetail.put("field", violation.getPropertyPath().toString());
+            errorDetail.put("message", violation.getMessage());
+            errorDetails.add(errorDetail);
+        }
+        return errorDetails;
+    }
+
+    private List<ItemResult> insert(List<Pending> chunk) {
+        List<ItemResult> results = new ArrayList<>();
+        Map<String, Object> authors;
+        try {
+            authors = reactiveUserClientService.getAuthorsByIds(
+                    chunk.stream().map(pending -> pending.article().getAuthorId()).toList()).block();
+        } catch (RuntimeException e) {
+            for (Pending pending : chunk) {
+                results.add(ItemResult.failed(pending.index(), "Could not look up the author: " + e.getMessage(), null));
+            }
+            return results;
+        }
+        Set<String> subCategoryIds = chunk.stream().map(pending -> pending.article().getSubCategoryId())
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<String, String> categoryBySubCategory = new HashMap<>();
+        for (SubCategorySummary subCategory : subCategoryRepository.findSummariesByIdIn(subCategoryIds)) {
+            categoryBySubCategory.put(subCategory.getId(), subCategory.getParentCategoryId());
+        }
+
+        List<Pending> valid = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Pending pending : chunk) {
+            Article article = pending.article();
+            if (authors == null || !authors.containsKey(article.getAuthorId())) {
+                results.add(ItemResult.failed(pending.index(), "Author not found.", null));
+                continue;
+            }
+            if (article.getSubCategoryId() != null && !categoryBySubCategory.containsKey(article.getSubCategoryId())) {
+                results.add(ItemResult.failed(pending.index(), "SubCategory not found.", null));
+                continue;
+            }
+            // IDs are assigned up front so every result can name its article; the version marks it as stored
+            article.setId(new ObjectId().toHexString());
+            article.setVersion(0L);
+            article.setCreatedAt(now);
+            article.setUpdatedAt(now);
+            article.setExcerpt(ArticleSummary.excerptOf(article.getContent()));
+            article.setCommentCount(0);
+            article.setLastCommentAt(null);
+            article.setCategoryId(categoryBySubCategory.get(article.getSubCategoryId()));
+            valid.add(pending);
+        }
+        if (valid.isEmpty()) return results;
+
+        // Bodies are stored first, so every article that is inserted has one
+        Map<Integer, String> failedBodies = new HashMap<>();
+        BulkOperations bodyOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ArticleBody.class);
+        valid.forEach(pending -> bodyOps.insert(ArticleBodyService.compress(pending.article().getId(), pending.article().getHtmlContent())));
+        try {
+            bodyOps.execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> failedBodies.put(error.getIndex(), error.getMessage()));
+        }
+
+        List<Pending> withBody = new ArrayList<>();
+        for (int position = 0; position < valid.size(); position++) {
+            Pending pending = valid.get(position);
+            String failure = failedBodies.get(position);
+            if (failure != null) {
+                results.add(ItemResult.failed(pending.index(), "Error creating article: " + failure, null));
+            } else {
+                withBody.add(pending);
+            }
+        }
+        if (withBody.isEmpty()) return results;
+
+        Map<Integer, String> failedPositions = new HashMap<>();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Article.class);
+        withBody.forEach(pending -> bulkOps.insert(pending.article()));
+        try {
+            bulkOps.execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> failedPositions.put(error.getIndex(), error.getMessage()));
+        }
+
+        List<ObjectId> orphanedBodies = new ArrayList<>();
+        for (int position = 0; position < withBody.size(); position++) {
+            Pending pending = withBody.get(position);
+            Article article = pending.article();
+            String failure = failedPositions.get(position);
+            if (failure != null) {
+                orphanedBodies.add(new ObjectId(article.getId()));
+                results.add(ItemResult.failed(pending.index(), "Error creating article: " + failure, null));
+                continue;
+            }
+            articleSearchIndex.index(article);
+            tagIndex.index(article);
+            results.add(new ItemResult(pending.index(), article.getId(), true, "Article created successfully.", null));
+        }
+        if (!orphanedBodies.isEmpty()) {
+            mongoTemplate.remove(new Query(Criteria.where("_id").in(orphanedBodies)), ArticleBody.class);
+        }
+        return results;
+    }
+
+    private record Pending(int index, Article article) {
+    }
+
+    /**
+     * The outcome of an import: how many articles were inserted and failed, and each article's outcome.
+     */
+    public record Result(int inserted, int failed, List<ItemResult> items) {
+    }
+
+    /**
+     * The outcome of one article: its position in the input, its ID if it was inserted,
+     * and otherwise why it was not, with the failed constraints for invalid articles.
+     */
+    public record ItemResult(int index, String id, boolean success, String message, List<Map<String, String>> errors) {
+
+        static ItemResult failed(int index, String message, List<Map<String, String>> errors) {
+            return new ItemResult(index, null, false, message, errors);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.gigglegazette.article_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.Optional;
+
+/**
+ * Fully serialized {@code GET /articles/{id}} responses, so hot articles are sent
+ * without rebuilding the response, fetching the author or running Jackson again.
+ * Each entry is tagged with the entity tag of the article it was built from and is
+ * only served while the article still has that tag. Responses are kept both as serialized
+ * and gzip-compressed, so neither kind of client costs a compression or an inflation per hit.
+ */
+public class ArticleResponseCache {
+
+    private final Cache<String, Entry> responses;
+
+    public ArticleResponseCache(Cache<String, Entry> responses) {
+        this.responses = responses;
+    }
+
+    /**
+     * @param articleId The ID of the article.
+     * @param etag      The current entity tag of the article.
+     * @return The cached response, or empty if none was cached for this version of the article.
+     */
+    public Optional<Entry> get(String articleId, String etag) {
+        Entry entry = responses.getIfPresent(articleId);
+        return entry != null && entry.etag().equals(etag) ? Optional.of(entry) : Optional.empty();
+    }
+
+    /**
+     * Cache the serialized response of an article and its compressed form, replacing the one for any older version.
+     *
+     * @return The cached entry.
+     */
+    public Entry put(String articleId, String etag, String authorId, byte[] json) {
+        Entry entry = new Entry(etag, authorId, json, ArticleBodyService.gzip(json));
+        responses.put(articleId, entry);
+        return entry;
+    }
+
+    /**
+     * Drop the cached response of an article that was updated or deleted.
+     */
+    public void invalidate(String articleId) {
+        responses.invalidate(articleId);
+    }
+
+    /**
+     * Drop the cached responses of every article by an author whose details changed.
+     * Author changes do not change the articles' entity tags, so they are evicted here.
+     */
+    public void invalidateAuthor(String authorId) {
+        responses.asMap().values().removeIf(entry -> authorId.equals(entry.authorId()));
+    }
+
+    /**
+     * @param json     The response body.
+     * @param gzipJson The gzip-compressed response body.
+     */
+    public record Entry(String etag, String authorId, byte[] json, byte[] gzipJson) {
+    }
+}
@@ -0,0 +1,193 @@
+package com.gigglegazette.article_service.service;
+
+import com.gigglegazette.article_service.counter.HyperLogLog;
+import com.gigglegazette.article_service.counter.WriteBehindCounter;
+import com.gigglegazette.article_service.model.Article;
+import com.gigglegazette.article_service.search.TrendingIndex;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Counts article views and estimates how many different readers each article had.
+ * <p>
+ * Views are buffered by the {@code articleViewCounter} and written as batched {@code $inc}s.
+ * Readers are identified by the {@code id} header the gateway sets for signed-in users and
+ * counted with a {@link HyperLogLog} per article, stored in {@code article_readers}. Sketches of
+ * the readers seen since the last flush are kept in memory and merged into the stored ones
+ * in one read and one bulk write. Merging is idempotent, so a sketch whose write may have
+ * been lost is simply merged again on the next flush.
+ */
+@Service
+public class ArticleViewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleViewService.class);
+
+    private static final String COLLECTION = "article_readers";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private WriteBehindCounter articleViewCounter;
+
+    @Autowired
+    private WriteBehindCounter articleLikeCounter;
+
+    @Autowired
+    private TrendingIndex trendingIndex;
+
+    // At 4 KB per sketch, this bounds the memory held between flushes
+    @Value("${gigglegazette.app.readerMaxPending:1000}")
+    private int maxPending;
+
+    private final ConcurrentHashMap<String, HyperLogLog> pendingReaders = new ConcurrentHashMap<>();
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean();
+
+    /**
+     * Record a view of an article.
+     *
+     * @param articleId The ID of the viewed article.
+     * @param readerId  The ID of the signed-in reader, or null for an anonymous view.
+     */
+    public void viewed(String articleId, String readerId) {
+        articleViewCounter.add(articleId, 1);
+        trendingIndex.viewed(articleId);
+        if (readerId == null || readerId.isBlank()) return;
+        // compute() runs under the entry's lock, so no reader is added to a sketch being flushed
+        pendingReaders.compute(articleId, (key, sketch) -> {
+            if (sketch == null) sketch = new HyperLogLog();
+            sketch.add(readerId);
+            return sketch;
+        });
+        if (pendingReaders.size() >= maxPending && earlyFlushScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::flushReaders, Instant.now());
+        }
+    }
+
+    /**
+     * Fetch the view, reader, like and comment counts of an article, including what has not been written yet.
+     *
+     * @param articleId The ID of the article.
+     * @return The counts, or empty if no article has that ID.
+     */
+    public Optional<ArticleStats> stats(String articleId) {
+        if (!ObjectId.isValid(articleId)) return Optional.empty();
+        ObjectId id = new ObjectId(articleId);
+        Query query = new Query(Criteria.where("_id").is(id));
+        query.fields().include("views").include("likes").include("commentCount");
+        Document article = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(Article.class));
+        if (article == null) return Optional.empty();
+
+        HyperLogLog readers = new HyperLogLog();
+        Document stored = mongoTemplate.findById(id, Document.class, COLLECTION);
+        if (stored != null) readers.merge(HyperLogLog.fromBytes(stored.get("registers", Binary.class).getData()));
+        HyperLogLog pending = pendingReaders.get(articleId);
+        if (pending != null) readers.merge(pending);
+
+        return Optional.of(new ArticleStats(
+                longValue(article, "views") + articleViewCounter.pending(articleId),
+                readers.estimate(),
+                longValue(article, "likes") + articleLikeCounter.pending(articleId),
+                longValue(article, "commentCount")));
+    }
+
+    /**
+     * Delete the reader sketch of a deleted article.
+     */
+    public void delete(String articleId) {
+        pendingReaders.remove(articleId);
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(new ObjectId(articleId))), COLLECTION);
+    }
+
+    /**
+     * Merge the readers seen since the last flush into the stored sketches.
+     */
+    @Scheduled(fixedDelayString = "${gigglegazette.app.readerFlushInterval:PT30S}")
+    public synchronized void flushReaders() {
+        earlyFlushScheduled.set(false);
+        Map<ObjectId, HyperLogLog> flushed = new HashMap<>();
+        for (String articleId : new ArrayList<>(pendingReaders.keySet())) {
+            HyperLogLog sketch = pendingReaders.remove(articleId);
+            if (sketch != null) flushed.put(new ObjectId(articleId), sketch);
+        }
+        if (flushed.isEmpty()) return;
+
+        try {
+            Map<ObjectId, Document> stored = new HashMap<>();
+            for (Document document : mongoTemplate.find(new Query(Criteria.where("_id").in(flushed.keySet())), Document.class, COLLECTION)) {
+                stored.put(document.getObjectId("_id"), document);
+            }
+            int updates = 0;
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+            for (Map.Entry<ObjectId, HyperLogLog> entry : flushed.entrySet()) {
+                Document current = stored.get(entry.getKey());
+                if (current == null) {
+                    bulkOps.insert(new Document("_id", entry.getKey())
+                            .append("registers", new Binary(entry.getValue().toBytes()))
+                            .append("version", 0L));
+                    continue;
+                }
+                HyperLogLog merged = HyperLogLog.fromBytes(current.get("registers", Binary.class).getData());
+                merged.merge(entry.getValue());
+                // Only replace the registers this merge was based on; another instance may have flushed since
+                bulkOps.updateOne(new Query(Criteria.where("_id").is(entry.getKey()).and("version").is(current.get("version"))),
+                        new Update().set("registers", new Binary(merged.toBytes())).inc("version", 1));
+                updates++;
+            }
+            BulkWriteResult result = bulkOps.execute();
+            if (result.getMatchedCount() < updates) {
+                // The result does not say which updates lost the race; merging all of them again is harmless
+                requeue(flushed);
+            }
+        } catch (BulkOperationException e) {
+            // Another instance inserted the same sketch first, or some updates failed
+            requeue(flushed);
+            logger.debug("{} of {} reader sketch writes failed and will be retried", e.getErrors().size(), flushed.size());
+        } catch (RuntimeException e) {
+            requeue(flushed);
+            logger.warn("Could not flush {} reader sketches, will retry: {}", flushed.size(), e.getMessage());
+        }
+    }
+
+    private void requeue(Map<ObjectId, HyperLogLog> sketches) {
+        sketches.forEach((id, sketch) -> pendingReaders.merge(id.toHexString(), sketch, (current, retried) -> {
+            current.merge(retried);
+            return current;
+        }));
+    }
+
+    private static long longValue(Document document, String field) {
+        Object value = document.get(field);
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+
+    /**
+     * How many times an article was viewed, by about how many different signed-in readers,
+     * and its like and comment counts.
+     */
+    public record ArticleStats(long views, long uniqueReaders, long likes, long commentCount) {
+    }
+}
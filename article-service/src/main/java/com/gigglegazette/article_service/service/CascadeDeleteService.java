@@ -0,0 +1,246 @@
+package com.gigglegazette.article_service.service;
+
+import com.gigglegazette.article_service.model.Article;
+import com.gigglegazette.article_service.model.CascadeJob;
+import com.gigglegazette.article_service.model.Comment;
+import com.gigglegazette.article_service.model.Image;
+import com.gigglegazette.article_service.model.SubCategory;
+import com.gigglegazette.article_service.repository.ArticleCategoryOperations;
+import com.gigglegazette.article_service.repository.CommentCountOperations;
+import com.gigglegazette.article_service.search.ArticleSearchIndex;
+import com.gigglegazette.article_service.search.TagIndex;
+import com.gigglegazette.article_service.search.TrendingIndex;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Deletes what depends on a deleted article, category or author in the background,
+ * so the delete request returns as soon as the deleted document itself is gone.
+ * <p>
+ * Jobs are stored in {@code cascade_jobs} and taken one at a time with an atomic update,
+ * so each job runs on one instance. Dependents are read and removed 500 at a time and the
+ * job's progress is recorded after every batch. Every step can safely run again: a job
+ * left running by a stopped instance is taken over once its lease expires, and a failed
+ * job is retried a few times before it is marked failed.
+ * <ul>
+ *     <li>Article: its comments, images, the image files no other image uses, and reader counts.</li>
+ *     <li>Category: its subcategories; their articles are kept, no longer filed under them.</li>
+ *     <li>Author: their articles, with the comments and images of each, and their comments on other articles.</li>
+ * </ul>
+ */
+@Service
+public class CascadeDeleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CascadeDeleteService.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_ATTEMPTS = 5;
+    // Longer than any batch takes, since progress after each batch renews it
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ArticleBodyService articleBodyService;
+
+    @Autowired
+    private ArticleResponseCache articleResponseCache;
+
+    @Autowired
+    private ArticleSearchIndex articleSearchIndex;
+
+    @Autowired
+    private TagIndex tagIndex;
+
+    @Autowired
+    private TrendingIndex trendingIndex;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ImageBlobCollector imageBlobCollector;
+
+    @Autowired
+    private ArticleViewService articleViewService;
+
+    @Autowired
+    private ArticleCategoryOperations articleCategoryOperations;
+
+    @Autowired
+    private CommentCountOperations commentCountOperations;
+
+    /**
+     * Queue the deletion of the dependents of a deleted document.
+     *
+     * @param type     What was deleted.
+     * @param targetId The ID of the deleted article, category or author.
+     * @return The queued job, whose ID can be polled for progress.
+     */
+    public CascadeJob enqueue(CascadeJob.Type type, String targetId) {
+        return mongoTemplate.insert(new CascadeJob(type, targetId));
+    }
+
+    /**
+     * Fetch a job to follow its progress.
+     *
+     * @param id The ID of the job.
+     * @return The job, or empty if there is none with that ID.
+     */
+    public Optional<CascadeJob> findById(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, CascadeJob.class));
+    }
+
+    @Scheduled(fixedDelayString = "${gigglegazette.app.cascadeInterval:PT2S}")
+    public void processJobs() {
+        CascadeJob job;
+        while ((job = claim()) != null) {
+            run(job);
+        }
+    }
+
+    private CascadeJob claim() {
+        LocalDateTime now = LocalDateTime.now();
+        return mongoTemplate.findAndModify(claimQuery(now),
+                new Update().set("status", CascadeJob.Status.RUNNING).set("updatedAt", now).inc("attempts", 1),
+                FindAndModifyOptions.options().returnNew(true), CascadeJob.class);
+    }
+
+    /**
+     * The oldest job that is pending or whose lease has expired; also explained at startup by
+     * {@link com.gigglegazette.article_service.config.MongoIndexInitializer}.
+     */
+    public static Query claimQuery(LocalDateTime now) {
+        return new Query(new Criteria().orOperator(
+                Criteria.where("status").is(CascadeJob.Status.PENDING),
+                Criteria.where("status").is(CascadeJob.Status.RUNNING).and("updatedAt").lt(now.minus(LEASE))))
+                .with(Sort.by("createdAt"));
+    }
+
+    private void run(CascadeJob job) {
+        try {
+            switch (job.getType()) {
+                case ARTICLE -> deleteArticleDependents(job, job.getTargetId());
+                case CATEGORY -> deleteCategoryDependents(job, job.getTargetId());
+                case AUTHOR -> deleteAuthorDependents(job, job.getTargetId());
+            }
+            finish(job, new Update().set("status", CascadeJob.Status.DONE).set("finishedAt", LocalDateTime.now()).unset("error"));
+        } catch (RuntimeException e) {
+            logger.warn("Cascade job {} ({} {}) failed on attempt {}", job.getId(), job.getType(), job.getTargetId(), job.getAttempts(), e);
+            CascadeJob.Status status = job.getAttempts() >= MAX_ATTEMPTS ? CascadeJob.Status.FAILED : CascadeJob.Status.PENDING;
+            finish(job, new Update().set("status", status).set("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    private void deleteArticleDependents(CascadeJob job, String articleId) {
+        ObjectId id = new ObjectId(articleId);
+        deleteInBatches(job, Comment.class, referencesArticle(id), null);
+        Set<String> blobHashes = new HashSet<>();
+        deleteInBatches(job, Image.class, referencesArticle(id), images -> {
+            for (Document image : images) {
+                deleteDerivatives(((ObjectId) image.get("_id")).toHexString());
+                blobHashes.add(image.getString("blobHash"));
+            }
+        });
+        // After the images are gone, so their own references no longer keep the blobs
+        imageBlobCollector.release(blobHashes);
+        articleViewService.delete(articleId);
+    }
+
+    // Comments and images not yet migrated to embedded references hold the bare article ID
+    private static Criteria referencesArticle(ObjectId articleId) {
+        return new Criteria().orOperator(Criteria.where("article._id").is(articleId), Criteria.where("article").is(articleId));
+    }
+
+    private void deleteCategoryDependents(CascadeJob job, String categoryId) {
+        deleteInBatches(job, SubCategory.class, Criteria.where("parentCategory").is(new ObjectId(categoryId)), subCategories -> {
+            for (Document subCategory : subCategories) {
+                articleCategoryOperations.subCategoryDeleted(((ObjectId) subCategory.get("_id")).toHexString());
+            }
+        });
+    }
+
+    private void deleteAuthorDependents(CascadeJob job, String authorId) {
+        // Dependents go before the articles, so a retried job still finds the articles they hang off
+        deleteInBatches(job, Article.class, Criteria.where("authorId").is(authorId), articles -> {
+            for (Document article : articles) {
+                String articleId = ((ObjectId) article.get("_id")).toHexString();
+                deleteArticleDependents(job, articleId);
+                articleBodyService.deleteById(articleId);
+                articleResponseCache.invalidate(articleId);
+                articleSearchIndex.remove(articleId);
+                tagIndex.remove(articleId);
+                trendingIndex.remove(articleId);
+            }
+        });
+        deleteInBatches(job, Comment.class, Criteria.where("authorId").is(authorId), comments -> {
+            Map<Object, Long> removedPerArticle = new HashMap<>();
+            for (Document comment : comments) {
+                Object article = comment.get("article");
+                // Comments not yet migrated to embedded references hold the bare article ID
+                Object articleId = article instanceof Document ref ? ref.get("_id") : article;
+                if (articleId != null) removedPerArticle.merge(articleId, 1L, Long::sum);
+            }
+            removedPerArticle.forEach((articleId, count) ->
+                    commentCountOperations.commentsRemoved(((ObjectId) articleId).toHexString(), count));
+        });
+    }
+
+    /**
+     * Remove the documents matching a filter one batch at a time, recording the progress after each batch.
+     *
+     * @param beforeRemove Called with each batch before it is removed, to clean up what depends on it.
+     */
+    private void deleteInBatches(CascadeJob job, Class<?> type, Criteria criteria, Consumer<List<Document>> beforeRemove) {
+        String collection = mongoTemplate.getCollectionName(type);
+        while (true) {
+            Query query = new Query(criteria).limit(BATCH_SIZE);
+            query.fields().include("_id").include("article").include("blobHash");
+            List<Document> batch = mongoTemplate.find(query, Document.class, collection);
+            if (batch.isEmpty()) return;
+            if (beforeRemove != null) beforeRemove.accept(batch);
+            List<Object> ids = batch.stream().map(document -> document.get("_id")).toList();
+            long removed = mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), collection).getDeletedCount();
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(new ObjectId(job.getId()))),
+                    new Update().inc("deleted." + collection, removed).set("updatedAt", LocalDateTime.now()),
+                    CascadeJob.class);
+        }
+    }
+
+    private void deleteDerivatives(String imageId) {
+        try {
+            imageDerivativeService.delete(imageId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void finish(CascadeJob job, Update update) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(new ObjectId(job.getId()))),
+                update.set("updatedAt", LocalDateTime.now()), CascadeJob.class);
+    }
+}
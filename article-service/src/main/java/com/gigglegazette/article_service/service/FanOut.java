@@ -0,0 +1,125 @@
+package com.gigglegazette.article_service.service;
+
+import com.gigglegazette.article_service.util.MongoRoundTrips;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs independent blocking calls, such as a database write and an author lookup,
+ * at the same time so a request waits for the slowest call instead of their sum.
+ * <p>
+ * The calls form one unit: they all finish before {@code invokeAll} returns, and if one
+ * fails or the deadline passes, the others are cancelled and the failure is rethrown.
+ * The first call runs on the request thread and the others on a pool of this class's own,
+ * so hot reads never wait behind background work queued on the shared task executor.
+ * The pool has no queue: when all its threads are busy, the remaining calls run one after
+ * the other on the request thread, which is no slower than not fanning out at all.
+ * <p>
+ * Calls on the pool are interrupted when the deadline passes. Calls on the request thread
+ * cannot be: no further one is started once the deadline has passed, but one already
+ * running is bounded only by its own timeouts, such as those of the Mongo driver.
+ */
+@Component
+public class FanOut implements InitializingBean, DisposableBean {
+
+    @Value("${gigglegazette.app.fanOutDeadline:3s}")
+    private Duration deadline;
+
+    @Value("${gigglegazette.app.fanOutThreads:64}")
+    private int threads;
+
+    private ThreadPoolExecutor executor;
+
+    @Override
+    public void afterPropertiesSet() {
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                new CustomizableThreadFactory("fan-out-"), new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run two calls at the same time.
+     *
+     * @return The results of both calls.
+     * @see #invokeAll(List)
+     */
+    @SuppressWarnings("unchecked")
+    public <A, B> Both<A, B> invokeBoth(Callable<A> first, Callable<B> second) {
+        List<Object> results = invokeAll(List.<Callable<?>>of(first, second));
+        return new Both<>((A) results.get(0), (B) results.get(1));
+    }
+
+    /**
+     * Run calls at the same time and wait for all of them, up to the configured deadline.
+     * The deadline does not cut short a call running on the request thread; see the class description.
+     *
+     * @param calls The calls to run.
+     * @return The results of the calls, in the order the calls were given.
+     * @throws CompletionException Wrapping a {@link TimeoutException} if the deadline passed,
+     *                             or the checked exception thrown by a call.
+     */
+    public <T> List<T> invokeAll(List<? extends Callable<? extends T>> calls) {
+        if (calls.isEmpty()) return List.of();
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        // Results are taken in completion order, so a failing call is seen without waiting for slower ones
+        CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<T>, Integer> positions = new HashMap<>();
+        try {
+            List<T> results = new ArrayList<>(Collections.nCopies(calls.size(), null));
+            List<Integer> inline = new ArrayList<>(List.of(0));
+            for (int i = 1; i < calls.size(); i++) {
+                Callable<? extends T> call = calls.get(i);
+                try {
+                    positions.put(completionService.submit(MongoRoundTrips.propagate(call::call)), i);
+                } catch (RejectedExecutionException e) {
+                    inline.add(i); // Every pool thread is busy
+                }
+            }
+            for (int i : inline) {
+                if (deadlineNanos - System.nanoTime() <= 0) throw timeout();
+                try {
+                    results.set(i, calls.get(i).call());
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }
+            for (int done = 0; done < positions.size(); done++) {
+                Future<T> future = completionService.poll(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (future == null) throw timeout();
+                results.set(positions.get(future), future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } finally {
+            // No-op for finished calls; interrupts the ones still running after a failure or timeout
+            positions.keySet().forEach(future -> future.cancel(true));
+        }
+    }
+
+    private CompletionException timeout() {
+        return new CompletionException(new TimeoutException("Calls did not finish within " + deadline));
+    }
+
+    public record Both<A, B>(A first, B second) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.gigglegazette.article_service.service;
+
+import com.gigglegazette.article_service.model.Image;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Removes image blobs that no image refers to any more. Several images may share a blob,
+ * so a blob is only removed once no image document holds its hash.
+ * <p>
+ * Blobs are released as soon as their images are deleted. A blob stored or uploaded again
+ * within the grace period is kept, since the image about to refer to it may not be saved yet;
+ * those, and blobs whose release was interrupted, are removed by a periodic sweep of the store.
+ */
+@Service
+public class ImageBlobCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageBlobCollector.class);
+
+    // Hashes looked up per query while sweeping
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ImageBlobStore imageBlobStore;
+
+    @Value("${gigglegazette.app.imageBlobGracePeriod:PT10M}")
+    private Duration gracePeriod;
+
+    /**
+     * Remove the blobs of deleted images that no other image refers to.
+     *
+     * @param hashes The blob hashes of the deleted images; nulls are ignored.
+     * @return The number of blobs removed.
+     */
+    public int release(Collection<String> hashes) {
+        Set<String> candidates = new HashSet<>(hashes);
+        candidates.remove(null);
+        if (candidates.isEmpty()) return 0;
+        List<String> referenced = mongoTemplate.findDistinct(new Query(Criteria.where("blobHash").in(candidates)),
+                "blobHash", Image.class, String.class);
+        referenced.forEach(candidates::remove);
+        int removed = 0;
+        for (String hash : candidates) {
+            try {
+                if (imageBlobStore.deleteIfIdle(hash, gracePeriod)) removed++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return removed;
+    }
+
+    @Scheduled(initialDelayString = "${gigglegazette.app.imageBlobSweepInterval:PT24H}",
+            fixedDelayString = "${gigglegazette.app.imageBlobSweepInterval:PT24H}")
+    public void sweep() {
+        int removed = 0;
+        try (Stream<String> hashes = imageBlobStore.hashes()) {
+            Iterator<String> iterator = hashes.iterator();
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                    removed += release(batch);
+                    batch.clear();
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Sweeping unreferenced image blobs failed after removing {}", removed, e);
+            return;
+        }
+        if (removed > 0) logger.info("Removed {} image blobs no image refers to", removed);
+    }
+}
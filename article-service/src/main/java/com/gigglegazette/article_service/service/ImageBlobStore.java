@@ -0,0 +1,233 @@
+package com.gigglegazette.article_service.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stores image binaries on local disk under the SHA-256 of their content, so the same
+ * file uploaded twice is stored once. A blob never changes once written, which makes
+ * its hash a strong entity tag.
+ * <p>
+ * Blobs live at {@code <root>/ab/cd/<hash>}; uploads are written to {@code <root>/tmp}
+ * first and moved into place once their hash is known. Blobs no image refers to any more
+ * are removed by {@link ImageBlobCollector}.
+ */
+@Service
+public class ImageBlobStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Enough leading bytes to recognize every supported image format
+    private static final int HEAD_SIZE = 12;
+
+    // Set by Tomcat when the connector can write a file straight to the socket with sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // The file name of a blob: a SHA-256 in lowercase hex
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path tmp;
+
+    public ImageBlobStore(@Value("${gigglegazette.app.imageStoreDir:data/images}") Path root) {
+        this.root = root.toAbsolutePath();
+        this.tmp = this.root.resolve("tmp");
+    }
+
+    /**
+     * Stream an upload to disk, hashing it on the way, without holding it in memory.
+     *
+     * @param content The uploaded bytes.
+     * @param maxSize The largest accepted upload in bytes.
+     * @return The hash, size and detected content type of the stored blob. Content that is
+     *         not a supported image is not kept, and its content type is null.
+     * @throws MaxUploadSizeExceededException If the upload is larger than {@code maxSize}.
+     */
+    public StoredBlob store(InputStream content, long maxSize) throws IOException {
+        Files.createDirectories(tmp);
+        Path upload = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            byte[] head = new byte[HEAD_SIZE];
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(upload)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    if (size < HEAD_SIZE) {
+                        System.arraycopy(buffer, 0, head, (int) size, (int) Math.min(read, HEAD_SIZE - size));
+                    }
+                    size += read;
+                    if (size > maxSize) throw new MaxUploadSizeExceededException(maxSize);
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String contentType = detectContentType(Arrays.copyOf(head, (int) Math.min(size, HEAD_SIZE)));
+            Path blob = locate(hash);
+            if (contentType != null && Files.notExists(blob)) {
+                Files.createDirectories(blob.getParent());
+                // A concurrent upload of the same content may win the race; the result is the same file
+                Files.move(upload, blob, StandardCopyOption.ATOMIC_MOVE);
+            } else if (contentType != null) {
+                // Marks the blob as in use again, so it is not collected before the new image refers to it
+                Files.setLastModifiedTime(blob, FileTime.from(Instant.now()));
+            }
+            return new StoredBlob(hash, size, contentType);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    /**
+     * Write a byte range of a blob to the response body.
+     *
+     * @param hash     The hash of the blob.
+     * @param start    The first byte to send.
+     * @param length   The number of bytes to send.
+     * @param request  The current request.
+     * @param response The current response.
+     * @see #transfer(Path, long, long, HttpServletRequest, HttpServletResponse)
+     */
+    public void transfer(String hash, long start, long length, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        transfer(locate(hash), start, length, request, response);
+    }
+
+    /**
+     * Write a byte range of a file to the response body. Tomcat sends the file with sendfile
+     * after the handler returns when the connector supports it; otherwise the range is copied
+     * with {@link FileChannel#transferTo}. The status and headers must be set before calling this.
+     *
+     * @param file     The file to send.
+     * @param start    The first byte to send.
+     * @param length   The number of bytes to send.
+     * @param request  The current request.
+     * @param response The current response.
+     */
+    public void transfer(Path file, long start, long length, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            // The file may be shorter than the range the caller computed; never read past its end
+            long end = Math.min(start + length, channel.size());
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, out);
+                if (sent <= 0) break;
+                position += sent;
+            }
+        }
+    }
+
+    /**
+     * Delete a blob unless it was stored or uploaded again within the given time.
+     *
+     * @param hash The hash of the blob.
+     * @param idle How long the blob must have gone untouched.
+     * @return True if the blob was deleted.
+     */
+    public boolean deleteIfIdle(String hash, Duration idle) throws IOException {
+        Path blob = locate(hash);
+        try {
+            if (Files.getLastModifiedTime(blob).toInstant().isAfter(Instant.now().minus(idle))) return false;
+            return Files.deleteIfExists(blob);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return The hashes of every stored blob. The stream holds open directories and must be closed.
+     */
+    public Stream<String> hashes() throws IOException {
+        if (Files.notExists(root)) return Stream.empty();
+        // Blobs are the only files two directories down named by a hash; tmp and derivatives hold other names
+        return Files.find(root, 3, (path, attributes) -> attributes.isRegularFile()
+                        && HASH.matcher(path.getFileName().toString()).matches())
+                .map(path -> path.getFileName().toString());
+    }
+
+    /**
+     * @return The directory the store keeps its files in.
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * @return The path of the blob with the given hash.
+     */
+    public Path locate(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    /**
+     * Recognize a supported image format from the leading bytes of a file.
+     *
+     * @return The content type, or null if the bytes are not a supported image.
+     */
+    static String detectContentType(byte[] head) {
+        if (startsWith(head, 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n')) return "image/png";
+        if (startsWith(head, 0xFF, 0xD8, 0xFF)) return "image/jpeg";
+        if (startsWith(head, 'G', 'I', 'F', '8')) return "image/gif";
+        if (startsWith(head, 'B', 'M')) return "image/bmp";
+        if (startsWith(head, 'R', 'I', 'F', 'F') && head.length >= 12
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') return "image/webp";
+        return null;
+    }
+
+    private static boolean startsWith(byte[] bytes, int... prefix) {
+        if (bytes.length < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if ((bytes[i] & 0xFF) != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JVM provides SHA-256
+        }
+    }
+
+    /**
+     * A blob as stored: its content hash, its size in bytes and the detected
+     * image content type, or null if the content was not a supported image.
+     */
+    public record StoredBlob(String hash, long size, String contentType) {
+    }
+}
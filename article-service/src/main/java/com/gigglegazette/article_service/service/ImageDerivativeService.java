@@ -0,0 +1,255 @@
+package com.gigglegazette.article_service.service;
+
+import com.gigglegazette.article_service.model.Image;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates smaller copies of uploaded images, so clients showing a thumbnail do not
+ * download the full file. Copies are generated in the background on a bounded pool
+ * and kept on disk at {@code <image store>/derivatives/<image id>/<width>.<ext>}.
+ * <p>
+ * Copies are written as WebP when an ImageIO WebP writer is on the classpath, otherwise
+ * as JPEG, or PNG for images with transparency. Formats ImageIO cannot read get no copies.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    /**
+     * The widths copies are generated at: a thumbnail and a medium size.
+     */
+    public static final List<Integer> WIDTHS = List.of(120, 640);
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final ImageBlobStore imageBlobStore;
+    private final Path root;
+    private final ThreadPoolExecutor executor;
+    // Images with copies being generated, so a second request does not queue them again
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    public ImageDerivativeService(ImageBlobStore imageBlobStore,
+                                  @Value("${gigglegazette.app.imageDerivativeThreads:2}") int threads,
+                                  @Value("${gigglegazette.app.imageDerivativeQueueSize:100}") int queueSize) {
+        this.imageBlobStore = imageBlobStore;
+        this.root = imageBlobStore.getRoot().resolve("derivatives");
+        // Resizing is CPU-bound and decodes whole images, so both the threads and the backlog are capped
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue the generation of the copies of an uploaded image. When the queue is full the
+     * image is skipped; its copies are queued again the next time one is requested.
+     *
+     * @param image The uploaded image.
+     */
+    public void schedule(Image image) {
+        if (image.getBlobHash() == null || !inProgress.add(image.getId())) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(image);
+                } catch (Exception e) {
+                    logger.warn("Failed to generate the smaller copies of image {}", image.getId(), e);
+                } finally {
+                    inProgress.remove(image.getId());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inProgress.remove(image.getId());
+            logger.debug("Image resizing queue is full, skipping image {}", image.getId());
+        }
+    }
+
+    /**
+     * Find the smallest copy of an image at least as wide as requested. If the copies have
+     * not been generated yet they are queued, and nothing is returned for now.
+     *
+     * @param image The image.
+     * @param width The width the client will display the image at.
+     * @return The copy, or empty if the original should be served.
+     */
+    public Optional<Derivative> nearest(Image image, int width) {
+        if (image.getBlobHash() == null) return Optional.empty();
+        for (int derivativeWidth : WIDTHS) {
+            if (derivativeWidth < width || (image.getWidth() > 0 && derivativeWidth >= image.getWidth())) continue;
+            for (Format format : Format.values()) {
+                Path file = pathOf(image.getId(), derivativeWidth, format);
+                if (Files.exists(file)) return Optional.of(new Derivative(file, derivativeWidth, format.contentType));
+            }
+            schedule(image);
+            return Optional.empty();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Delete the copies of an image.
+     *
+     * @param imageId The ID of the image.
+     */
+    public void delete(String imageId) throws IOException {
+        FileSystemUtils.deleteRecursively(root.resolve(imageId));
+    }
+
+    /**
+     * Read the dimensions of an image from its header, without decoding the pixels.
+     *
+     * @param file The image file.
+     * @return The width and height, or empty if ImageIO cannot read the format.
+     */
+    public static Optional<int[]> readDimensions(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            ImageReader reader = readerFor(input);
+            if (reader == null) return Optional.empty();
+            try {
+                reader.setInput(input, true, true);
+                return Optional.of(new int[]{reader.getWidth(0), reader.getHeight(0)});
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void generate(Image image) throws IOException {
+        Path source = imageBlobStore.locate(image.getBlobHash());
+        Format format = null;
+        for (int width : WIDTHS) {
+            if (image.getWidth() > 0 && width >= image.getWidth()) break;
+            BufferedImage resized = resize(source, width);
+            if (resized == null) return; // Not a format ImageIO can read
+            if (format == null) format = Format.of(resized.getColorModel().hasAlpha());
+            Path target = pathOf(image.getId(), width, format);
+            if (Files.exists(target)) continue;
+            Files.createDirectories(target.getParent());
+            Path partial = Files.createTempFile(target.getParent(), width + "-", ".part");
+            try {
+                write(resized, format, partial);
+                Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        }
+    }
+
+    /**
+     * Decode an image at a reduced resolution and scale it to the given width.
+     * Subsampling while decoding keeps large sources from being held in memory in full.
+     */
+    private static BufferedImage resize(Path source, int width) throws IOException {
+        BufferedImage decoded;
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            ImageReader reader = readerFor(input);
+            if (reader == null) return null;
+            try {
+                reader.setInput(input, true, true);
+                // Keep at least twice the target width so the final scaling step stays smooth
+                int subsampling = Math.max(1, reader.getWidth(0) / (width * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                decoded = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+        int height = Math.max(1, (int) Math.round((double) decoded.getHeight() * width / decoded.getWidth()));
+        int type = decoded.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage resized = new BufferedImage(width, height, type);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(decoded, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private static void write(BufferedImage image, Format format, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByMIMEType(format.contentType).next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (format == Format.JPEG) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static ImageReader readerFor(ImageInputStream input) {
+        if (input == null) return null;
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        return readers.hasNext() ? readers.next() : null;
+    }
+
+    private Path pathOf(String imageId, int width, Format format) {
+        return root.resolve(imageId).resolve(width + "." + format.extension);
+    }
+
+    private enum Format {
+        WEBP("image/webp", "webp"),
+        JPEG("image/jpeg", "jpg"),
+        PNG("image/png", "png");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        static Format of(boolean hasAlpha) {
+            if (ImageIO.getImageWritersByMIMEType(WEBP.contentType).hasNext()) return WEBP;
+            return hasAlpha ? PNG : JPEG;
+        }
+    }
+
+    /**
+     * A generated copy of an image: its file, its width and its content type.
+     */
+    public record Derivative(Path file, int width, String contentType) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.gigglegazette.article_service.service;
+
+import com.gigglegazette.article_service.client.AuthorCache;
+import com.gigglegazette.article_service.client.ReactiveUserClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+
+@Service
+public class ReactiveUserClientService {
+
+    // Authors per call to user-service, well below its batch limit
+    static final int CHUNK_SIZE = 100;
+
+    // Calls to user-service in flight at once for a single request
+    static final int MAX_CONCURRENT_CALLS = 4;
+
+    @Autowired
+    private ReactiveUserClient reactiveUserClient;
+
+    @Autowired
+    private AuthorCache authorCache;
+
+    /**
+     * Fetch the details of several authors without blocking the calling thread.
+     * Authors in the author cache are answered from memory; the others are split into
+     * chunks that are fetched from user-service concurrently, a few at a time.
+     *
+     * @param authorIds The IDs of the authors to be fetched.
+     * @return The author details keyed by author ID. Unknown authors are absent from the map.
+     */
+    public Mono<Map<String, Object>> getAuthorsByIds(Collection<String> authorIds) {
+        List<String> distinctIds = authorIds.stream().filter(Objects::nonNull).distinct().toList();
+        Map<String, Object> authors = new HashMap<>(authorCache.getAllPresent(distinctIds));
+        List<String> missing = distinctIds.stream().filter(id -> !authors.containsKey(id)).toList();
+        if (missing.isEmpty()) {
+            return Mono.just(authors);
+        }
+
+        long generation = authorCache.generation();
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < missing.size(); from += CHUNK_SIZE) {
+            chunks.add(missing.subList(from, Math.min(from + CHUNK_SIZE, missing.size())));
+        }
+        return Flux.fromIterable(chunks)
+                .flatMap(chunk -> reactiveUserClient.getUsersByIds(chunk), MAX_CONCURRENT_CALLS)
+                .flatMapIterable(response -> response.getData() != null ? response.getData() : List.<Map<String, Object>>of())
+                .doOnNext(user -> authorCache.putIfCurrent(String.valueOf(user.get("id")), user, generation))
+                .collect(() -> authors, (found, user) -> found.put(String.valueOf(user.get("id")), user));
+    }
+}
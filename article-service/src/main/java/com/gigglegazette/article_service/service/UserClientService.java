@@ -0,0 +1,31 @@
+package com.gigglegazette.article_service.service;
+
+import com.gigglegazette.article_service.client.UserClient;
+import com.gigglegazette.article_service.util.CustomResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.*;
+
+@Service
+public class UserClientService {
+
+    @Autowired
+    private UserClient userClient;
+
+    /**
+     * Fetch the details of a single author.
+     *
+     * @param authorId The ID of the author to be fetched.
+     * @return The author details, or null when the author does not exist.
+     */
+    public Object getAuthorById(String authorId) {
+        try {
+            CustomResponse<Map<String, Object>> response = userClient.getUserById(authorId).getBody();
+            return response != null ? response.getData() : null;
+        } catch (WebClientResponseException.NotFound ex) {
+            return null; // Author was deleted or never existed
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.gigglegazette.article_service.util;
+
+import com.gigglegazette.article_service.model.ArticleSummary;
+
+public class ArticleSummaryResponse {
+    private ArticleSummary article;
+    private Object articleAuthor;
+
+    public ArticleSummaryResponse(ArticleSummary article, Object articleAuthor) {
+        this.article = article;
+        this.articleAuthor = articleAuthor;
+    }
+
+    public ArticleSummary getArticle() {
+        return article;
+    }
+
+    public void setArticle(ArticleSummary article) {
+        this.article = article;
+    }
+
+    public Object getArticleAuthor() {
+        return articleAuthor;
+    }
+
+    public void setArticleAuthor(Object articleAuthor) {
+        this.articleAuthor = articleAuthor;
+    }
+}
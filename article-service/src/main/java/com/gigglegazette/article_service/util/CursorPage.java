@@ -0,0 +1,61 @@
+package com.gigglegazette.article_service.util;
+
+import org.bson.types.ObjectId;
+
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code next} is an opaque cursor to
+ * pass back as the {@code cursor} parameter, or null when there are no more items.
+ */
+public class CursorPage<T> {
+    private List<T> items;
+    private String next;
+
+    public CursorPage(List<T> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    /**
+     * Encode the ObjectId of the last item of a page as an opaque cursor.
+     */
+    public static String encodeCursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(new ObjectId(id).toByteArray());
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encodeCursor(String)}.
+     *
+     * @return The ObjectId the next page starts after, or null for the first page.
+     * @throws IllegalArgumentException If the cursor was not produced by this API.
+     */
+    public static ObjectId decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+        if (bytes.length != 12) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new ObjectId(bytes);
+    }
+
+    // Getters and setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,101 @@
+package com.gigglegazette.article_service.util;
+
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the commands the blocking Mongo driver sends while serving a request.
+ * The counter of the current request is bound to the serving thread; tasks it
+ * hands to other threads carry it along through {@link #propagate(Callable)}.
+ * <p>
+ * Also records the commands sent while running some queries, so they can be
+ * inspected exactly as the driver sent them; see {@link #capture(String, Runnable)}.
+ */
+public final class MongoRoundTrips {
+
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+    private static final List<Capture> CAPTURES = new CopyOnWriteArrayList<>();
+
+    private MongoRoundTrips() {
+    }
+
+    public static void bind(AtomicInteger counter) {
+        CURRENT.set(counter);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Count one command against the request bound to this thread, if any.
+     */
+    public static void increment() {
+        AtomicInteger counter = CURRENT.get();
+        if (counter != null) counter.incrementAndGet();
+    }
+
+    /**
+     * Called by the command listener of both drivers for every command sent.
+     */
+    public static void commandStarted(CommandStartedEvent event) {
+        increment();
+        if (CAPTURES.isEmpty()) return;
+        String json = null;
+        for (Capture capture : CAPTURES) {
+            boolean matches = capture.thread() == Thread.currentThread();
+            if (!matches) {
+                if (json == null) json = event.getCommand().toJson();
+                matches = json.contains(capture.marker());
+            }
+            // The command is only readable while the listener runs
+            if (matches) capture.commands().add(event.getCommand().clone());
+        }
+    }
+
+    /**
+     * Run queries and return the commands they sent. The blocking driver sends them on the
+     * calling thread; the reactive driver sends them on its own threads, so those are told
+     * apart from the commands of other work by a marker value the queries filter on.
+     *
+     * @param marker  A value unique to these queries, such as a fresh ObjectId in hex form.
+     * @param queries The queries to run; they must have completed when it returns.
+     * @return The commands sent, in order.
+     */
+    public static List<BsonDocument> capture(String marker, Runnable queries) {
+        Capture capture = new Capture(Thread.currentThread(), marker, Collections.synchronizedList(new ArrayList<>()));
+        CAPTURES.add(capture);
+        try {
+            queries.run();
+        } finally {
+            CAPTURES.remove(capture);
+        }
+        return List.copyOf(capture.commands());
+    }
+
+    /**
+     * Wrap a task so the commands it sends count against the request that created it.
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        AtomicInteger counter = CURRENT.get();
+        if (counter == null) return task;
+        return () -> {
+            CURRENT.set(counter);
+            try {
+                return task.call();
+            } finally {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    private record Capture(Thread thread, String marker, List<BsonDocument> commands) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.gigglegazette.article_service.client;
+
+import com.gigglegazette.article_service.util.CustomResponse;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CachingUserClientTests {
+
+	private final AuthorCache authorCache = new AuthorCache(Caffeine.newBuilder().build());
+	private final UserClient delegate = mock(UserClient.class);
+	private final CachingUserClient userClient = new CachingUserClient(delegate, authorCache);
+
+	@Test
+	void cachesFetchedAuthors() {
+		when(delegate.getUserById("a")).thenReturn(ResponseEntity.ok(new CustomResponse<>("", author("a", "Ann"), true)));
+
+		userClient.getUserById("a");
+
+		assertEquals("Ann", authorCache.getIfPresent("a").get("name"));
+	}
+
+	@Test
+	void invalidationDuringAFetchIsNotUndone() {
+		when(delegate.getUserById("a")).thenAnswer(invocation -> {
+			// The author is renamed while the old details are on their way back
+			userClient.invalidate("a");
+			return ResponseEntity.ok(new CustomResponse<>("", author("a", "Ann"), true));
+		});
+
+		assertEquals("Ann", userClient.getUserById("a").getBody().getData().get("name"));
+		assertNull(authorCache.getIfPresent("a"));
+	}
+
+	@Test
+	void invalidationDuringABatchFetchIsNotUndone() {
+		authorCache.putIfCurrent("b", author("b", "Bob"), authorCache.generation());
+		when(delegate.getUsersByIds(List.of("a"))).thenAnswer(invocation -> {
+			userClient.invalidate("a");
+			return ResponseEntity.ok(new CustomResponse<>("", List.of(author("a", "Ann")), true));
+		});
+
+		assertEquals(2, userClient.getUsersByIds(List.of("a", "b")).getBody().getData().size());
+		assertNull(authorCache.getIfPresent("a"));
+		assertEquals("Bob", authorCache.getIfPresent("b").get("name"));
+	}
+
+	private static Map<String, Object> author(String id, String name) {
+		return Map.of("id", id, "name", name);
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.gigglegazette.article_service.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.gigglegazette.article_service.repository.FieldProjections;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+class FieldSelectionAdviceTests {
+
+	@Test
+	void writesOnlyTheSelectedFields() throws Exception {
+		try (AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext()) {
+			context.setServletContext(new MockServletContext());
+			context.register(WebConfig.class, FieldSelectionAdvice.class);
+			context.refresh();
+			MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+			FieldProjections.Projection projection = new FieldProjections.Projection("id", Set.of("id"), List.of("_id"),
+					new SimpleFilterProvider().addFilter(FieldProjections.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept("id")));
+
+			mockMvc.perform(get("/greeting").requestAttr(FieldProjections.REQUEST_ATTRIBUTE, projection))
+					.andExpect(jsonPath("$.id").value("1"))
+					.andExpect(jsonPath("$.text").doesNotExist());
+		}
+	}
+
+	@Configuration
+	@EnableWebMvc
+	static class WebConfig {
+
+		@Bean
+		public GreetingController greetingController() {
+			return new GreetingController();
+		}
+	}
+
+	@RestController
+	static class GreetingController {
+
+		@GetMapping("/greeting")
+		public Greeting greeting() {
+			return new Greeting("1", "hello");
+		}
+	}
+
+	@JsonFilter(FieldProjections.FILTER_ID)
+	record Greeting(String id, String text) {
+	}
+
+}
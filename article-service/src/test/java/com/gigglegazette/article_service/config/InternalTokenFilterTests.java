@@ -0,0 +1,47 @@
+package com.gigglegazette.article_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InternalTokenFilterTests {
+
+	private static MockHttpServletResponse call(String configured, String presented) throws Exception {
+		InternalEndpointConfig.InternalTokenFilter filter = new InternalEndpointConfig.InternalTokenFilter(configured, new ObjectMapper());
+		MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/authors/42");
+		if (presented != null) request.addHeader(InternalEndpointConfig.HEADER, presented);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request, response, chain);
+		if (response.getStatus() == 200) assertNotNull(chain.getRequest(), "the request was not passed on");
+		else assertNull(chain.getRequest(), "a refused request was passed on");
+		return response;
+	}
+
+	@Test
+	void passesCallsWithTheSharedSecret() throws Exception {
+		assertEquals(200, call("s3cret", "s3cret").getStatus());
+	}
+
+	@Test
+	void refusesCallsWithoutOrWithAWrongSecret() throws Exception {
+		assertEquals(401, call("s3cret", null).getStatus());
+		MockHttpServletResponse response = call("s3cret", "guess");
+		assertEquals(401, response.getStatus());
+		assertTrue(response.getContentAsString().contains("\"success\":false"));
+	}
+
+	@Test
+	void refusesEveryCallWhenNoSecretIsConfigured() throws Exception {
+		assertEquals(401, call("", "").getStatus());
+		assertEquals(401, call("", null).getStatus());
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.gigglegazette.article_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+class MongoIndexInitializerTests {
+
+	@Autowired
+	private MongoIndexInitializer mongoIndexInitializer;
+
+	@Test
+	void repositoryFindersUseIndexScans() {
+		mongoIndexInitializer.ensureIndexes();
+		List<MongoIndexInitializer.QueryPlan> plans = mongoIndexInitializer.explainQueryProbes();
+		assertFalse(plans.isEmpty(), "No find commands were captured");
+		for (MongoIndexInitializer.QueryPlan plan : plans) {
+			assertFalse(plan.stages().contains("COLLSCAN"), plan.probe() + " " + plan.command().toJson() + " is planned as " + plan.stages());
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.gigglegazette.article_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+class RoundTripHeaderAdviceTests {
+
+	@Test
+	void writesTheCountWhenEnabled() throws Exception {
+		try (AnnotationConfigWebApplicationContext context = context(Map.of("gigglegazette.app.roundTripHeader", "true"))) {
+			MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+			mockMvc.perform(get("/greeting").requestAttr(MongoRoundTripConfig.COUNTER_ATTRIBUTE, new AtomicInteger(3)))
+					.andExpect(header().string(MongoRoundTripConfig.HEADER, "3"))
+					.andExpect(jsonPath("$.text").value("hello"));
+		}
+	}
+
+	@Test
+	void isOffByDefault() throws Exception {
+		try (AnnotationConfigWebApplicationContext context = context(Map.of())) {
+			MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+			mockMvc.perform(get("/greeting").requestAttr(MongoRoundTripConfig.COUNTER_ATTRIBUTE, new AtomicInteger(3)))
+					.andExpect(header().doesNotExist(MongoRoundTripConfig.HEADER));
+		}
+	}
+
+	private static AnnotationConfigWebApplicationContext context(Map<String, Object> properties) {
+		AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+		context.setServletContext(new MockServletContext());
+		context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+		context.register(WebConfig.class, RoundTripHeaderAdvice.class);
+		context.refresh();
+		return context;
+	}
+
+	@Configuration
+	@EnableWebMvc
+	static class WebConfig {
+
+		@Bean
+		public GreetingController greetingController() {
+			return new GreetingController();
+		}
+	}
+
+	@RestController
+	static class GreetingController {
+
+		@GetMapping("/greeting")
+		public Map<String, String> greeting() {
+			return Map.of("text", "hello");
+		}
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.gigglegazette.article_service.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.gigglegazette.article_service.model.Article;
+import com.gigglegazette.article_service.repository.ArticleBodyRepository;
+import com.gigglegazette.article_service.repository.ArticleRepository;
+import com.gigglegazette.article_service.service.ArticleBodyService;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ArticleExportTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+			.setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+
+	private static Article article(String id) {
+		Article article = new Article("Title " + id, "Plain content", "author", List.of("news"), "PUBLISHED", 0, null);
+		article.setId(id);
+		return article;
+	}
+
+	@Test
+	void exportedLinesCarryTheHtmlOfTheirBodies() throws Exception {
+		// More than one lookup batch, so the last, partial batch is covered too
+		List<Article> articles = IntStream.range(0, 150).mapToObj(i -> article(new ObjectId().toHexString())).toList();
+		ArticleRepository articleRepository = mock(ArticleRepository.class);
+		when(articleRepository.streamAllBy()).thenReturn(articles.stream());
+		ArticleBodyRepository articleBodyRepository = mock(ArticleBodyRepository.class);
+		when(articleBodyRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+			List<Object> bodies = new ArrayList<>();
+			for (Object id : invocation.<Iterable<?>>getArgument(0)) {
+				bodies.add(ArticleBodyService.compress((String) id, "<p>Body of " + id + "</p>"));
+			}
+			return bodies;
+		});
+		ArticleBodyService articleBodyService = new ArticleBodyService();
+		ReflectionTestUtils.setField(articleBodyService, "articleBodyRepository", articleBodyRepository);
+
+		ArticleController controller = new ArticleController();
+		ReflectionTestUtils.setField(controller, "articleRepository", articleRepository);
+		ReflectionTestUtils.setField(controller, "articleBodyService", articleBodyService);
+		ReflectionTestUtils.setField(controller, "objectMapper", objectMapper);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		controller.exportArticles().getBody().writeTo(out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(articles.size(), lines.length);
+		for (String line : lines) {
+			JsonNode exported = objectMapper.readTree(line);
+			assertEquals("<p>Body of " + exported.get("id").asText() + "</p>", exported.get("htmlContent").asText());
+		}
+		verify(articleBodyRepository, times(2)).findAllById(anyIterable());
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.gigglegazette.article_service.counter;
+
+import com.gigglegazette.article_service.model.Article;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WriteBehindCounterTests {
+
+	private static final int THREADS = 8;
+	private static final int ADDS_PER_THREAD = 20_000;
+	private static final int IDS = 16;
+
+	@Test
+	void concurrentAddsAndFlushesLoseNoIncrements() throws InterruptedException {
+		Map<String, AtomicLong> written = new ConcurrentHashMap<>();
+		BulkOperations bulkOps = mock(BulkOperations.class);
+		when(bulkOps.updateOne(any(Query.class), any(Update.class))).thenAnswer(invocation -> {
+			Query query = invocation.getArgument(0);
+			Update update = invocation.getArgument(1);
+			String id = (String) query.getQueryObject().get("_id");
+			long delta = update.getUpdateObject().get("$inc", Document.class).get("likes", Number.class).longValue();
+			written.computeIfAbsent(id, key -> new AtomicLong()).addAndGet(delta);
+			return bulkOps;
+		});
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class))).thenReturn(bulkOps);
+		// A maxPending above the number of adds keeps early flushes, which need the scheduler, out of the test
+		WriteBehindCounter counter = new WriteBehindCounter(mongoTemplate, Article.class, "likes",
+				mock(TaskScheduler.class), Duration.ofSeconds(10), Long.MAX_VALUE);
+
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> adders = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			Thread adder = new Thread(() -> {
+				await(start);
+				for (int i = 0; i < ADDS_PER_THREAD; i++) counter.add("article-" + (i % IDS), 1);
+			});
+			adder.start();
+			adders.add(adder);
+		}
+		AtomicBoolean adding = new AtomicBoolean(true);
+		Thread flusher = new Thread(() -> {
+			await(start);
+			while (adding.get()) counter.flush();
+		});
+		flusher.start();
+
+		start.countDown();
+		for (Thread adder : adders) adder.join();
+		adding.set(false);
+		flusher.join();
+		counter.flush();
+
+		assertEquals(IDS, written.size());
+		for (int i = 0; i < IDS; i++) {
+			assertEquals((long) THREADS * ADDS_PER_THREAD / IDS, written.get("article-" + i).get(), "article-" + i);
+			assertEquals(0, counter.pending("article-" + i));
+		}
+	}
+
+	@Test
+	void idleEntriesAreDroppedAndRecreated() {
+		BulkOperations bulkOps = mock(BulkOperations.class);
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class))).thenReturn(bulkOps);
+		WriteBehindCounter counter = new WriteBehindCounter(mongoTemplate, Article.class, "likes",
+				mock(TaskScheduler.class), Duration.ofSeconds(10), Long.MAX_VALUE);
+
+		counter.add("article", 2);
+		assertEquals(1, counter.flush());
+		assertEquals(0, counter.flush()); // drained, then dropped as idle
+		counter.add("article", 3);
+		assertEquals(3, counter.pending("article"));
+		assertEquals(1, counter.flush());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
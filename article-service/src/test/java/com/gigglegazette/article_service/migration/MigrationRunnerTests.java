@@ -0,0 +1,65 @@
+package com.gigglegazette.article_service.migration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MigrationRunnerTests {
+
+	private MongoTemplate mongoTemplate;
+	private MigrationRunner migrationRunner;
+
+	@BeforeEach
+	void setUp() {
+		mongoTemplate = mock(MongoTemplate.class);
+		migrationRunner = new MigrationRunner();
+		ReflectionTestUtils.setField(migrationRunner, "mongoTemplate", mongoTemplate);
+		// Runs the migration on the calling thread, so the test sees its effects right away
+		ReflectionTestUtils.setField(migrationRunner, "taskExecutor", new TaskExecutorAdapter(Runnable::run));
+	}
+
+	@Test
+	void runsAMigrationAndRecordsItsCompletion() {
+		AtomicInteger runs = new AtomicInteger();
+
+		migrationRunner.runOnce("excerpts", runs::incrementAndGet);
+
+		assertEquals(1, runs.get());
+		verify(mongoTemplate).upsert(any(Query.class), any(Update.class), eq(MigrationRunner.COLLECTION));
+	}
+
+	@Test
+	void skipsACompletedMigration() {
+		when(mongoTemplate.exists(any(Query.class), eq(MigrationRunner.COLLECTION))).thenReturn(true);
+		AtomicInteger runs = new AtomicInteger();
+
+		migrationRunner.runOnce("excerpts", runs::incrementAndGet);
+
+		assertEquals(0, runs.get());
+		verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(MigrationRunner.COLLECTION));
+	}
+
+	@Test
+	void doesNotRecordAFailedMigration() {
+		migrationRunner.runOnce("excerpts", () -> {
+			throw new IllegalStateException("interrupted");
+		});
+
+		verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(MigrationRunner.COLLECTION));
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.gigglegazette.article_service.search;
+
+import com.gigglegazette.article_service.model.Article;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArticleSearchIndexTests {
+
+	@Test
+	void scoresMatchBm25() {
+		ArticleSearchIndex index = new ArticleSearchIndex();
+		index.index(article("a", "", "penguin penguin walrus", null));
+		index.index(article("b", "", "walrus", null));
+		index.index(article("c", "", "otter otter otter", null));
+
+		ArticleSearchIndex.SearchHits result = index.search("penguin", 0, 10);
+
+		// One of three articles has the term twice; the average length is 7 / 3 terms
+		double idf = Math.log(1 + (3 - 1 + 0.5) / (1 + 0.5));
+		double expected = idf * 2 * 2.2 / (2 + 1.2 * (1 - 0.75 + 0.75 * 3 / (7.0 / 3)));
+		assertEquals(1, result.total());
+		assertEquals("a", result.hits().get(0).articleId());
+		assertEquals(expected, result.hits().get(0).score(), 1e-9);
+	}
+
+	@Test
+	void rarerTermsRankHigher() {
+		ArticleSearchIndex index = new ArticleSearchIndex();
+		index.index(article("results", "", "election results tonight", null));
+		index.index(article("recount", "", "budget recount tonight", null));
+		index.index(article("coverage", "", "election coverage tonight", null));
+
+		// "recount" is in one article and "election" in two, so it carries more weight
+		assertEquals("recount", ids(index.search("election recount", 0, 10)).get(0));
+		assertEquals(3, index.search("election recount", 0, 10).total());
+	}
+
+	@Test
+	void titleMatchesRankAboveContentMatches() {
+		ArticleSearchIndex index = new ArticleSearchIndex();
+		index.index(article("content", "Budget", "recount news", null));
+		index.index(article("title", "Recount", "budget news", null));
+
+		assertEquals(List.of("title", "content"), ids(index.search("recount", 0, 10)));
+	}
+
+	@Test
+	void shorterArticlesRankHigherForTheSameFrequency() {
+		ArticleSearchIndex index = new ArticleSearchIndex();
+		index.index(article("short", "", "satire", null));
+		index.index(article("long", "", "satire about the weather the markets and the weekend sports", null));
+
+		assertEquals(List.of("short", "long"), ids(index.search("satire", 0, 10)));
+	}
+
+	@Test
+	void pagesThroughHitsAndCountsAllMatches() {
+		ArticleSearchIndex index = new ArticleSearchIndex();
+		for (int i = 0; i < 20; i++) {
+			// Longer content lowers the score, so article 0 ranks first
+			index.index(article("article-" + i, "", "gazette" + " filler".repeat(i), null));
+		}
+
+		ArticleSearchIndex.SearchHits page = index.search("gazette", 5, 5);
+
+		assertEquals(20, page.total());
+		assertEquals(List.of("article-5", "article-6", "article-7", "article-8", "article-9"), ids(page));
+		assertTrue(index.search("gazette", 25, 5).hits().isEmpty());
+	}
+
+	@Test
+	void offsetsPastTheLastHitReturnNoHits() {
+		ArticleSearchIndex index = new ArticleSearchIndex();
+		index.index(article("a", "", "gazette", null));
+		index.index(article("b", "", "gazette filler", null));
+
+		// Offsets whose sum with the limit overflows an int
+		ArticleSearchIndex.SearchHits page = index.search("gazette", Integer.MAX_VALUE, 100);
+		assertEquals(2, page.total());
+		assertTrue(page.hits().isEmpty());
+		assertEquals(List.of("b"), ids(index.search("gazette", 1, Integer.MAX_VALUE)));
+	}
+
+	@Test
+	void reindexingReusesOrdinals() {
+		ArticleSearchIndex index = new ArticleSearchIndex();
+		index.index(article("a", "First", "alpha", null));
+		index.index(article("b", "Second", "beta", List.of("gamma")));
+		for (int i = 0; i < 1000; i++) {
+			index.index(article("a", "First", "alpha revision" + i, null));
+		}
+		index.remove("b");
+		index.index(article("c", "Third", "gamma", null));
+
+		assertEquals(2, index.ordinalCount());
+		assertEquals(List.of("a"), ids(index.search("revision999", 0, 10)));
+		assertEquals(0, index.search("revision998", 0, 10).total());
+		assertEquals(List.of("c"), ids(index.search("gamma", 0, 10)));
+		assertEquals(0, index.search("beta", 0, 10).total());
+	}
+
+	private static List<String> ids(ArticleSearchIndex.SearchHits result) {
+		return result.hits().stream().map(ArticleSearchIndex.SearchHit::articleId).toList();
+	}
+
+	private static Article article(String id, String title, String content, List<String> tags) {
+		Article article = new Article(title, content, "author", tags, "published", 0, null);
+		article.setId(id);
+		return article;
+	}
+}
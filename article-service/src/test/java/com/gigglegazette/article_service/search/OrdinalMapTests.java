@@ -0,0 +1,34 @@
+package com.gigglegazette.article_service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrdinalMapTests {
+
+	@Test
+	void behavesLikeAHashMapThroughGrowthAndRemovals() {
+		OrdinalMap map = new OrdinalMap();
+		Map<String, Integer> expected = new HashMap<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 100_000; i++) {
+			String key = "article-" + random.nextInt(2000);
+			if (random.nextInt(3) == 0) {
+				Integer removed = expected.remove(key);
+				assertEquals(removed == null ? OrdinalMap.ABSENT : removed, map.remove(key));
+			} else {
+				expected.put(key, i);
+				map.put(key, i);
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		for (int i = 0; i < 2000; i++) {
+			String key = "article-" + i;
+			assertEquals(expected.getOrDefault(key, OrdinalMap.ABSENT), map.get(key), key);
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package com.gigglegazette.article_service.search;
+
+import com.gigglegazette.article_service.model.Article;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TrendingIndexTests {
+
+	private static final Duration HALF_LIFE = Duration.ofHours(6);
+
+	private final TestClock clock = new TestClock();
+	private final Map<String, Document> articles = new HashMap<>();
+	private MongoTemplate mongoTemplate;
+	private BulkOperations bulkOps;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void mockMongo() {
+		mongoTemplate = mock(MongoTemplate.class);
+		bulkOps = mock(BulkOperations.class);
+		when(mongoTemplate.getCollectionName(Article.class)).thenReturn("articles");
+		when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq("trending_scores"))).thenReturn(bulkOps);
+		when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("articles"))).thenAnswer(invocation -> {
+			Query query = invocation.getArgument(0);
+			Collection<ObjectId> ids = (Collection<ObjectId>) query.getQueryObject().get("_id", Document.class).get("$in");
+			return ids.stream().map(id -> articles.get(id.toHexString())).filter(Objects::nonNull).toList();
+		});
+	}
+
+	@Test
+	void keepsTheHighestScoresOverallAndPerCategory() {
+		TrendingIndex index = index(3);
+		List<String> ids = new ArrayList<>();
+		for (int i = 1; i <= 6; i++) {
+			String id = article("Article " + i, i % 2 == 1 ? "news" : "sports");
+			ids.add(id);
+			index.liked(id, i);
+		}
+		index.applyPending();
+
+		assertEquals(List.of(ids.get(5), ids.get(4), ids.get(3)), ranked(index.top(null, 10)));
+		assertEquals(List.of(ids.get(4), ids.get(2), ids.get(0)), ranked(index.top("news", 10)));
+		assertEquals(List.of(ids.get(5), ids.get(3), ids.get(1)), ranked(index.top("sports", 10)));
+
+		// The weakest article overtakes all others and pushes the smallest score out of the heap
+		index.liked(ids.get(0), 10);
+		index.applyPending();
+		assertEquals(List.of(ids.get(0), ids.get(5), ids.get(4)), ranked(index.top(null, 10)));
+		assertEquals(List.of(ids.get(0), ids.get(5)), ranked(index.top(null, 2)));
+	}
+
+	@Test
+	void articlesDroppingOutAreReplacedAtTheNextCheckpoint() {
+		TrendingIndex index = index(3);
+		List<String> ids = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			String id = article("Article " + i, "news");
+			ids.add(id);
+			index.liked(id, 2 * i);
+		}
+		index.applyPending();
+
+		index.remove(ids.get(4));
+		index.liked(ids.get(3), -7); // 8 likes become 1
+		index.applyPending();
+		assertEquals(List.of(ids.get(2), ids.get(3)), ranked(index.top(null, 10)));
+
+		index.checkpoint();
+		assertEquals(List.of(ids.get(2), ids.get(1), ids.get(0)), ranked(index.top(null, 10)));
+	}
+
+	@Test
+	void scoresHalveEveryHalfLife() {
+		TrendingIndex index = index(10);
+		String id = article("Article", "news");
+		index.liked(id, 8);
+		index.applyPending();
+		assertEquals(8, index.top(null, 1).get(0).score(), 1e-9);
+
+		clock.advance(HALF_LIFE);
+		assertEquals(4, index.top(null, 1).get(0).score(), 1e-9);
+		clock.advance(HALF_LIFE.multipliedBy(2));
+		assertEquals(1, index.top(null, 1).get(0).score(), 1e-9);
+	}
+
+	@Test
+	void recentActivityOutranksMoreActivityLongAgo() {
+		TrendingIndex index = index(10);
+		String older = article("Older", "news");
+		String newer = article("Newer", "news");
+		index.liked(older, 10);
+		index.applyPending();
+		clock.advance(HALF_LIFE.multipliedBy(2));
+		index.liked(newer, 4);
+		index.applyPending();
+
+		List<TrendingIndex.TrendingArticle> top = index.top(null, 10);
+		assertEquals(List.of(newer, older), ranked(top));
+		assertEquals(4, top.get(0).score(), 1e-9);
+		assertEquals(2.5, top.get(1).score(), 1e-9);
+	}
+
+	@Test
+	void deletedCommentsCountAsMuchAsTheyStillDid() {
+		TrendingIndex index = index(10);
+		String id = article("Article", "news");
+		index.commented(id);
+		index.liked(id, 1);
+		index.applyPending();
+		clock.advance(HALF_LIFE);
+
+		index.uncommented(id, clock.instant().minus(HALF_LIFE).atZone(ZoneId.systemDefault()).toLocalDateTime());
+		index.applyPending();
+		assertEquals(0.5, index.top(null, 1).get(0).score(), 1e-9);
+	}
+
+	@Test
+	void newArticlesAreLookedUpTogetherAndUnknownOnesIgnored() {
+		TrendingIndex index = index(10);
+		String first = article("First", "news");
+		String second = article("Second", "news");
+		String deleted = new ObjectId().toHexString();
+		String unliked = article("Unliked", "news");
+		index.viewed(first);
+		index.viewed(second);
+		index.liked(deleted, 1);
+		index.liked(unliked, -1);
+		index.applyPending();
+
+		assertEquals(Set.of(first, second), new HashSet<>(ranked(index.top(null, 10))));
+		verify(mongoTemplate, times(1)).find(any(Query.class), eq(Document.class), eq("articles"));
+	}
+
+	@Test
+	void checkpointsOnlyAddWhatThisInstanceContributed() {
+		TrendingIndex index = index(10);
+		String id = article("Article", "news");
+		index.liked(id, 5);
+		index.checkpoint();
+		index.liked(id, 2);
+		index.checkpoint();
+
+		ArgumentCaptor<UpdateDefinition> updates = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(bulkOps, times(2)).upsert(any(Query.class), updates.capture());
+		assertEquals(List.of(5.0, 2.0), updates.getAllValues().stream().map(TrendingIndexTests::delta).toList());
+	}
+
+	private TrendingIndex index(int topK) {
+		TrendingIndex index = new TrendingIndex(HALF_LIFE, topK, clock);
+		ReflectionTestUtils.setField(index, "mongoTemplate", mongoTemplate);
+		return index;
+	}
+
+	private String article(String title, String categoryId) {
+		ObjectId id = new ObjectId();
+		articles.put(id.toHexString(), new Document("_id", id).append("title", title)
+				.append("authorId", "author").append("categoryId", categoryId));
+		return id.toHexString();
+	}
+
+	private static List<String> ranked(List<TrendingIndex.TrendingArticle> top) {
+		return top.stream().map(TrendingIndex.TrendingArticle::id).toList();
+	}
+
+	// The delta added in the $set stage: { score: { $max: [0, { $add: [stored, delta] }] } }
+	private static double delta(UpdateDefinition update) {
+		Document set = ((AggregationUpdate) update).toPipeline(Aggregation.DEFAULT_CONTEXT).get(0).get("$set", Document.class);
+		Document sum = (Document) set.get("score", Document.class).getList("$max", Object.class).get(1);
+		return ((Number) sum.getList("$add", Object.class).get(1)).doubleValue();
+	}
+
+	private static final class TestClock extends Clock {
+
+		private Instant now = Instant.parse("2024-06-01T12:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.gigglegazette.article_service.service;
+
+import com.gigglegazette.article_service.model.Image;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImageBlobCollectorTests {
+
+	private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 0};
+	private static final byte[] GIF = {'G', 'I', 'F', '8', '9', 'a', 0, 0, 0, 0, 0, 0};
+
+	@TempDir
+	private Path root;
+
+	@Test
+	void releasesOnlyUnreferencedIdleBlobs() throws IOException {
+		ImageBlobStore store = new ImageBlobStore(root);
+		String shared = store.store(new ByteArrayInputStream(PNG), 1024).hash();
+		String orphan = store.store(new ByteArrayInputStream(GIF), 1024).hash();
+		age(store.locate(shared));
+		age(store.locate(orphan));
+		ImageBlobCollector collector = collector(store, List.of(shared));
+
+		assertEquals(1, collector.release(List.of(shared, orphan)));
+
+		assertTrue(Files.exists(store.locate(shared)));
+		assertFalse(Files.exists(store.locate(orphan)));
+	}
+
+	@Test
+	void keepsBlobsUploadedAgainWithinTheGracePeriod() throws IOException {
+		ImageBlobStore store = new ImageBlobStore(root);
+		String hash = store.store(new ByteArrayInputStream(PNG), 1024).hash();
+		age(store.locate(hash));
+		// The same content uploaded again, for an image not saved yet
+		store.store(new ByteArrayInputStream(PNG), 1024);
+
+		assertEquals(0, collector(store, List.of()).release(List.of(hash)));
+		assertTrue(Files.exists(store.locate(hash)));
+	}
+
+	@Test
+	void sweepFindsOnlyBlobs() throws IOException {
+		ImageBlobStore store = new ImageBlobStore(root);
+		String hash = store.store(new ByteArrayInputStream(PNG), 1024).hash();
+		Path derivative = root.resolve("derivatives").resolve("image").resolve("120.jpg");
+		Files.createDirectories(derivative.getParent());
+		Files.write(derivative, GIF);
+		age(store.locate(hash));
+
+		try (Stream<String> hashes = store.hashes()) {
+			assertEquals(List.of(hash), hashes.toList());
+		}
+		collector(store, List.of()).sweep();
+		assertFalse(Files.exists(store.locate(hash)));
+		assertTrue(Files.exists(derivative));
+	}
+
+	private static ImageBlobCollector collector(ImageBlobStore store, List<String> referenced) {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.findDistinct(any(Query.class), eq("blobHash"), eq(Image.class), eq(String.class))).thenReturn(referenced);
+		ImageBlobCollector collector = new ImageBlobCollector();
+		ReflectionTestUtils.setField(collector, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(collector, "imageBlobStore", store);
+		ReflectionTestUtils.setField(collector, "gracePeriod", Duration.ofMinutes(10));
+		return collector;
+	}
+
+	private static void age(Path blob) throws IOException {
+		Files.setLastModifiedTime(blob, FileTime.from(Instant.now().minus(Duration.ofHours(1))));
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.gigglegazette.article_service.util;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MongoRoundTripsTests {
+
+	private static final ConnectionDescription CONNECTION = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+	private static void send(BsonDocument command) {
+		MongoRoundTrips.commandStarted(new CommandStartedEvent(null, 1, 1, CONNECTION, "test", command.getFirstKey(), command));
+	}
+
+	private static void sendFrom(BsonDocument command) throws InterruptedException {
+		Thread thread = new Thread(() -> send(command));
+		thread.start();
+		thread.join();
+	}
+
+	@Test
+	void capturesCommandsOfTheCallingThread() {
+		BsonDocument command = new BsonDocument("find", new BsonString("categories")).append("filter", new BsonDocument());
+
+		List<BsonDocument> captured = MongoRoundTrips.capture(new ObjectId().toHexString(), () -> send(command));
+
+		assertEquals(List.of(command), captured);
+	}
+
+	@Test
+	void capturesCommandsOfOtherThreadsOnlyWhenTheyMentionTheMarker() {
+		ObjectId marker = new ObjectId();
+		BsonDocument marked = new BsonDocument("find", new BsonString("articles"))
+				.append("filter", new BsonDocument("subCategoryId", new BsonObjectId(marker)));
+		BsonDocument other = new BsonDocument("find", new BsonString("articles"))
+				.append("filter", new BsonDocument("htmlContent", new BsonDocument("$exists", new BsonString("true"))));
+
+		List<BsonDocument> captured = MongoRoundTrips.capture(marker.toHexString(), () -> {
+			try {
+				sendFrom(other);
+				sendFrom(marked);
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		assertEquals(List.of(marked), captured);
+	}
+
+	@Test
+	void stopsCapturingOnceTheQueriesReturn() {
+		String marker = new ObjectId().toHexString();
+		MongoRoundTrips.capture(marker, () -> {
+		});
+		AtomicInteger counter = new AtomicInteger();
+		MongoRoundTrips.bind(counter);
+		try {
+			List<BsonDocument> captured = MongoRoundTrips.capture(marker, () -> {
+			});
+			send(new BsonDocument("find", new BsonString(marker)));
+			assertEquals(List.of(), captured);
+			assertEquals(1, counter.get());
+		} finally {
+			MongoRoundTrips.unbind();
+		}
+	}
+
+}
@@ -1,6 +1,7 @@
 package com.gigglegazette.user_service.controller;
 
 import com.gigglegazette.user_service.model.Permission;
+import com.gigglegazette.user_service.repository.PartialUpdateOperations;
 import com.gigglegazette.user_service.repository.PermissionRepository;
 import com.gigglegazette.user_service.util.CustomResponse;
 import jakarta.validation.Valid;
@@ -20,6 +21,9 @@ public class PermissionController {
     @Autowired
     private PermissionRepository permissionRepository;
 
+    @Autowired
+    private PartialUpdateOperations partialUpdateOperations;
+
     /**
      * Retrieve all permissions from the database.
      *
@@ -123,16 +127,9 @@ public class PermissionController {
     @PutMapping("/{id}")
     public ResponseEntity<CustomResponse<Permission>> updatePermission(@PathVariable String id, @RequestBody Permission permission) {
         try {
-            Optional<Permission> existingPermissionOptional = permissionRepository.findById(id);
-            if (existingPermissionOptional.isPresent()) {
-                Permission existingPermission = existingPermissionOptional.get();
-
-                // Update fields from the request body
-                if (permission.getName() != null) existingPermission.setName(permission.getName());
-                if (permission.getAllowedRoles() != null)
-                    existingPermission.setAllowedRoles(permission.getAllowedRoles());
-                Permission savedPermission = permissionRepository.save(existingPermission);
-                return ResponseEntity.ok(new CustomResponse<>("Permission updated successfully", savedPermission, true));
+            Optional<Permission> updatedPermissionOptional = partialUpdateOperations.update(id, permission, Permission.class);
+            if (updatedPermissionOptional.isPresent()) {
+                return ResponseEntity.ok(new CustomResponse<>("Permission updated successfully", updatedPermissionOptional.get(), true));
             } else {
                 return ResponseEntity.status(404).body(new CustomResponse<>("Permission not found", null, false));
             }
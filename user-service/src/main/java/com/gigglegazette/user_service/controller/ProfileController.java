@@ -1,6 +1,7 @@
 package com.gigglegazette.user_service.controller;
 
 import com.gigglegazette.user_service.model.Profile;
+import com.gigglegazette.user_service.repository.PartialUpdateOperations;
 import com.gigglegazette.user_service.repository.ProfileRepository;
 import com.gigglegazette.user_service.util.CustomResponse;
 import jakarta.validation.Valid;
@@ -20,6 +21,9 @@ public class ProfileController {
     @Autowired
     private ProfileRepository profileRepository;
 
+    @Autowired
+    private PartialUpdateOperations partialUpdateOperations;
+
     /**
      * Retrieve all profiles from the database.
      *
@@ -100,20 +104,9 @@ public class ProfileController {
     @PutMapping("/{id}")
     public ResponseEntity<CustomResponse<Profile>> updateProfile(@PathVariable String id, @RequestBody Profile profile) {
         try {
-            Optional<Profile> existingProfileOptional = profileRepository.findById(id);
-            if (existingProfileOptional.isPresent()) {
-                Profile existingProfile = existingProfileOptional.get();
-
-                // Update fields from the request body
-                if (profile.getFirstName() != null) existingProfile.setFirstName(profile.getFirstName());
-                if (profile.getLastName() != null) existingProfile.setLastName(profile.getLastName());
-                if (profile.getDateOfBirth() != null) existingProfile.setDateOfBirth(profile.getDateOfBirth());
-                if (profile.getAddress() != null) existingProfile.setAddress(profile.getAddress());
-                if (profile.getPhoneNumber() != null) existingProfile.setPhoneNumber(profile.getPhoneNumber());
-                if (profile.getProfilePicture() != null) existingProfile.setProfilePicture(profile.getProfilePicture());
-
-                Profile savedProfile = profileRepository.save(existingProfile);
-                return ResponseEntity.ok(new CustomResponse<>("Profile updated successfully", savedProfile, true));
+            Optional<Profile> updatedProfileOptional = partialUpdateOperations.update(id, profile, Profile.class);
+            if (updatedProfileOptional.isPresent()) {
+                return ResponseEntity.ok(new CustomResponse<>("Profile updated successfully", updatedProfileOptional.get(), true));
             } else {
                 return ResponseEntity.status(404).body(new CustomResponse<>("Profile not found", null, false));
             }
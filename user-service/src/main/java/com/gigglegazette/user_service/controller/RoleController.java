@@ -1,6 +1,7 @@
 package com.gigglegazette.user_service.controller;
 
 import com.gigglegazette.user_service.model.Role;
+import com.gigglegazette.user_service.repository.PartialUpdateOperations;
 import com.gigglegazette.user_service.repository.RoleRepository;
 import com.gigglegazette.user_service.util.CustomResponse;
 import jakarta.validation.Valid;
@@ -19,6 +20,9 @@ public class RoleController {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private PartialUpdateOperations partialUpdateOperations;
+
     /**
      * Retrieve all roles from the database.
      *
@@ -101,13 +105,9 @@ public class RoleController {
     @PutMapping("/{id}")
     public ResponseEntity<CustomResponse<Role>> updateRole(@PathVariable String id, @RequestBody Role role) {
         try {
-            Optional<Role> existingRoleOptional = roleRepository.findById(id);
-            if (existingRoleOptional.isPresent()) {
-                Role existingRole = existingRoleOptional.get();
-                // Only update fields that are provided in the request body
-                if (role.getName() != null) existingRole.setName(role.getName());
-                Role savedRole = roleRepository.save(existingRole);
-                return ResponseEntity.ok(new CustomResponse<>("Role updated successfully", savedRole, true));
+            Optional<Role> updatedRoleOptional = partialUpdateOperations.update(id, role, Role.class);
+            if (updatedRoleOptional.isPresent()) {
+                return ResponseEntity.ok(new CustomResponse<>("Role updated successfully", updatedRoleOptional.get(), true));
             } else {
                 return ResponseEntity.status(404).body(new CustomResponse<>("Role not found", null, false));
             }
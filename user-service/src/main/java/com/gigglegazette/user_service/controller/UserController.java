@@ -1,10 +1,15 @@
 package com.gigglegazette.user_service.controller;
 
 import com.gigglegazette.user_service.model.User;
+import com.gigglegazette.user_service.repository.FieldProjections;
+import com.gigglegazette.user_service.repository.PartialUpdateOperations;
 import com.gigglegazette.user_service.repository.UserRepository;
+import com.gigglegazette.user_service.service.ArticleServiceNotifier;
 import com.gigglegazette.user_service.util.CustomResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -16,20 +21,37 @@ import java.util.*;
 @RequestMapping("/users")
 public class UserController {
 
+    private static final int MAX_BATCH_SIZE = 500;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PartialUpdateOperations partialUpdateOperations;
+
+    @Autowired
+    private ArticleServiceNotifier articleServiceNotifier;
+
+    @Autowired
+    private FieldProjections fieldProjections;
+
     /**
      * Retrieve all users from the database.
      *
+     * @param fields The comma-separated user fields to return, or nothing for all of them.
      * @return A response entity containing a list of all users and a success message.
      */
     @GetMapping
-    public ResponseEntity<CustomResponse<List<User>>> getAllUsers() {
+    public ResponseEntity<CustomResponse<List<User>>> getAllUsers(@RequestParam(required = false) String fields) {
         try {
-            List<User> users = userRepository.findAll();
+            FieldProjections.Projection projection = fieldProjections.select(User.class, fields);
+            List<User> users = projection == null
+                    ? userRepository.findAll()
+                    : fieldProjections.find(new Query(), User.class, projection);
             return ResponseEntity.ok(
                     new CustomResponse<>("Users retrieved successfully", users, true));
+        } catch (FieldProjections.InvalidFieldsException e) {
+            return ResponseEntity.status(400).body(new CustomResponse<>(e.getMessage(), null, false));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(
                     new CustomResponse<>("An error occurred while retrieving users: " + e.getMessage(), null, false));
@@ -40,34 +62,75 @@ public class UserController {
      * Fetch a specific user by their unique ID.
      *
      * @param id The ID of the user to be fetched.
+     * @param fields The comma-separated user fields to return, or nothing for all of them.
      * @return A response entity containing the user if found, or a 'not found' message.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<CustomResponse<User>> getUserById(@PathVariable String id) {
+    public ResponseEntity<CustomResponse<User>> getUserById(@PathVariable String id, @RequestParam(required = false) String fields) {
         try {
-            Optional<User> user = userRepository.findById(id);
+            FieldProjections.Projection projection = fieldProjections.select(User.class, fields);
+            Optional<User> user = projection == null
+                    ? userRepository.findById(id)
+                    : fieldProjections.findById(id, User.class, projection);
             return user.map(value -> ResponseEntity.ok(new CustomResponse<>("User retrieved successfully", value, true)))
                     .orElseGet(() -> ResponseEntity.status(404).body(
                             new CustomResponse<>("User not found", null, false)));
+        } catch (FieldProjections.InvalidFieldsException e) {
+            return ResponseEntity.status(400).body(new CustomResponse<>(e.getMessage(), null, false));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(
                     new CustomResponse<>("An error occurred while retrieving the user: " + e.getMessage(), null, false));
         }
     }
 
+    /**
+     * Fetch several users by their unique IDs in a single lookup.
+     * Unknown IDs are skipped, so the result may hold fewer users than requested.
+     *
+     * @param ids The IDs of the users to be fetched.
+     * @param fields The comma-separated user fields to return, or nothing for all of them.
+     * @return A response entity containing the users that were found.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<CustomResponse<List<User>>> getUsersByIds(@RequestParam List<String> ids,
+                                                                    @RequestParam(required = false) String fields) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.status(400).body(
+                    new CustomResponse<>("At most " + MAX_BATCH_SIZE + " ids can be requested at once", null, false));
+        }
+        try {
+            FieldProjections.Projection projection = fieldProjections.select(User.class, fields);
+            List<User> users = projection == null
+                    ? userRepository.findByIdIn(new LinkedHashSet<>(ids))
+                    : fieldProjections.find(new Query(Criteria.where("_id").in(new LinkedHashSet<>(ids))), User.class, projection);
+            return ResponseEntity.ok(new CustomResponse<>("Users retrieved successfully", users, true));
+        } catch (FieldProjections.InvalidFieldsException e) {
+            return ResponseEntity.status(400).body(new CustomResponse<>(e.getMessage(), null, false));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(
+                    new CustomResponse<>("An error occurred while retrieving users: " + e.getMessage(), null, false));
+        }
+    }
+
     /**
      * Fetch a specific user by their unique email.
      *
      * @param email The Email of the user to be fetched.
+     * @param fields The comma-separated user fields to return, or nothing for all of them.
      * @return A response entity containing the user if found, or a 'not found' message.
      */
     @GetMapping("/email/{email}")
-    public ResponseEntity<CustomResponse<User>> getUserByEmail(@PathVariable String email) {
+    public ResponseEntity<CustomResponse<User>> getUserByEmail(@PathVariable String email, @RequestParam(required = false) String fields) {
         try {
-            Optional<User> user = userRepository.findByEmail(email);
+            FieldProjections.Projection projection = fieldProjections.select(User.class, fields);
+            Optional<User> user = projection == null
+                    ? userRepository.findByEmail(email)
+                    : fieldProjections.find(new Query(Criteria.where("email").is(email)), User.class, projection).stream().findFirst();
             return user.map(value -> ResponseEntity.ok(new CustomResponse<>("User retrieved successfully", value, true)))
                     .orElseGet(() -> ResponseEntity.status(404).body(
                             new CustomResponse<>("User not found", null, false)));
+        } catch (FieldProjections.InvalidFieldsException e) {
+            return ResponseEntity.status(400).body(new CustomResponse<>(e.getMessage(), null, false));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(
                     new CustomResponse<>("An error occurred while retrieving the user: " + e.getMessage(), null, false));
@@ -78,15 +141,21 @@ public class UserController {
      * Fetch a specific user by their unique username.
      *
      * @param username The username of the user to be fetched.
+     * @param fields The comma-separated user fields to return, or nothing for all of them.
      * @return A response entity containing the user if found, or a 'not found' message.
      */
     @GetMapping("/username/{username}")
-    public ResponseEntity<CustomResponse<User>> getUserByUsername(@PathVariable String username) {
+    public ResponseEntity<CustomResponse<User>> getUserByUsername(@PathVariable String username, @RequestParam(required = false) String fields) {
         try {
-            Optional<User> user = userRepository.findByUsername(username);
+            FieldProjections.Projection projection = fieldProjections.select(User.class, fields);
+            Optional<User> user = projection == null
+                    ? userRepository.findByUsername(username)
+                    : fieldProjections.find(new Query(Criteria.where("username").is(username)), User.class, projection).stream().findFirst();
             return user.map(value -> ResponseEntity.ok(new CustomResponse<>("User retrieved successfully", value, true)))
                     .orElseGet(() -> ResponseEntity.status(404).body(
                             new CustomResponse<>("User not found", null, false)));
+        } catch (FieldProjections.InvalidFieldsException e) {
+            return ResponseEntity.status(400).body(new CustomResponse<>(e.getMessage(), null, false));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(
                     new CustomResponse<>("An error occurred while retrieving the user: " + e.getMessage(), null, false));
@@ -137,18 +206,10 @@ public class UserController {
     @PutMapping("/{id}")
     public ResponseEntity<CustomResponse<User>> updateUser(@PathVariable String id, @RequestBody User user) {
         try {
-            Optional<User> existingUserOptional = userRepository.findById(id);
-            if (existingUserOptional.isPresent()) {
-                User existingUser = existingUserOptional.get();
-                // Only update fields that are provided in the request body
-                if (user.getUsername() != null) existingUser.setUsername(user.getUsername());
-                if (user.getEmail() != null) existingUser.setEmail(user.getEmail());
-                if (user.getPassword() != null) existingUser.setPassword(user.getPassword());
-                if (user.getRole() != null) existingUser.setRole(user.getRole());
-                if (user.getProfile() != null) existingUser.setProfile(user.getProfile());
-
-                User savedUser = userRepository.save(existingUser);
-                return ResponseEntity.ok(new CustomResponse<>("User updated successfully", savedUser, true));
+            Optional<User> updatedUserOptional = partialUpdateOperations.update(id, user, User.class);
+            if (updatedUserOptional.isPresent()) {
+                articleServiceNotifier.evictAuthor(id);
+                return ResponseEntity.ok(new CustomResponse<>("User updated successfully", updatedUserOptional.get(), true));
             } else {
                 return ResponseEntity.status(404).body(new CustomResponse<>("User not found", null, false));
             }
@@ -160,6 +221,7 @@ public class UserController {
 
     /**
      * Delete a user based on their unique ID.
+     * Their articles and comments are deleted by article-service in the background.
      *
      * @param id The ID of the user to be deleted.
      * @return A response entity indicating whether the deletion was successful or the user was not found.
@@ -170,6 +232,8 @@ public class UserController {
             Optional<User> userOptional = userRepository.findById(id);
             if (userOptional.isPresent()) {
                 userRepository.deleteById(id);
+                articleServiceNotifier.evictAuthor(id);
+                articleServiceNotifier.deleteAuthorContent(id);
                 return ResponseEntity.ok(new CustomResponse<>("User deleted successfully", null, true));
             } else {
                 return ResponseEntity.status(404).body(
@@ -1,5 +1,7 @@
 package com.gigglegazette.user_service.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.gigglegazette.user_service.repository.FieldProjections;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.Indexed;
@@ -13,6 +15,7 @@ import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
 
 @Document(collection = "users")
+@JsonFilter(FieldProjections.FILTER_ID)
 public class User {
 
     @MongoId(FieldType.OBJECT_ID)
@@ -0,0 +1,170 @@
+package com.gigglegazette.user_service.repository;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sparse fieldsets: turns the {@code fields} request parameter, a comma-separated list of the
+ * JSON properties of a model, into a Mongo projection so the other fields are never read,
+ * and into a Jackson filter so they are not written either.
+ * <p>
+ * Each field list is checked against the model once and cached per model and list. The models
+ * carry {@code @JsonFilter(FieldProjections.FILTER_ID)}; responses without a selection are
+ * written whole. The ID is always included. Properties marked {@code @Transient} are not
+ * stored; handlers fill them in when the projection {@link Projection#includes includes} them.
+ * <p>
+ * Each service builds on its own and they share no library, so article-service and user-service
+ * carry identical copies of this class, as they do of {@code CustomResponse}; change both together.
+ */
+@Component
+public class FieldProjections {
+
+    public static final String FILTER_ID = "fields";
+    public static final String REQUEST_ATTRIBUTE = FieldProjections.class.getName() + ".projection";
+
+    // Field lists come from clients; past this many distinct ones, new lists are parsed but not cached
+    private static final int MAX_CACHED = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ConcurrentHashMap<CacheKey, Projection> projections = new ConcurrentHashMap<>();
+
+    /**
+     * Parse a {@code fields} parameter and limit the response of the current request to those fields.
+     *
+     * @param type     The model the response holds.
+     * @param fields   The comma-separated JSON property names, or null for whole documents.
+     * @param required Properties the handler reads itself, fetched even when not requested.
+     * @return The projection, or null if no fields were requested.
+     * @throws InvalidFieldsException If a name is not a property of the model.
+     */
+    public Projection select(Class<?> type, String fields, String... required) {
+        if (fields == null || fields.isBlank()) return null;
+        CacheKey key = new CacheKey(type, fields, List.of(required));
+        Projection projection = projections.get(key);
+        if (projection == null) {
+            projection = parse(type, fields, required);
+            if (projections.size() < MAX_CACHED) projections.putIfAbsent(key, projection);
+        }
+        RequestContextHolder.currentRequestAttributes().setAttribute(REQUEST_ATTRIBUTE, projection, RequestAttributes.SCOPE_REQUEST);
+        return projection;
+    }
+
+    /**
+     * Fetch a document by its ID, reading only the projected fields.
+     */
+    public <T> Optional<T> findById(String id, Class<T> type, Projection projection) {
+        return Optional.ofNullable(mongoTemplate.findOne(projection.applyTo(new Query(Criteria.where("_id").is(id))), type));
+    }
+
+    /**
+     * Fetch the documents matching a query, reading only the projected fields.
+     */
+    public <T> List<T> find(Query query, Class<T> type, Projection projection) {
+        return mongoTemplate.find(projection.applyTo(query), type);
+    }
+
+    private Projection parse(Class<?> type, String fields, String[] required) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        Map<String, MongoPersistentProperty> byJsonName = jsonProperties(type, entity);
+
+        Set<String> selected = new TreeSet<>();
+        selected.add(entity.getRequiredIdProperty().getName());
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) continue;
+            if (!byJsonName.containsKey(trimmed)) {
+                throw new InvalidFieldsException("Unknown field: " + trimmed + ".");
+            }
+            selected.add(trimmed);
+        }
+        Set<String> read = new LinkedHashSet<>(selected);
+        read.addAll(List.of(required));
+        List<String> storedFields = read.stream().map(byJsonName::get).filter(Objects::nonNull)
+                .map(MongoPersistentProperty::getFieldName).toList();
+        FilterProvider filters = new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(selected));
+        return new Projection(String.join("+", selected), Set.copyOf(selected), storedFields, filters);
+    }
+
+    // The properties Jackson writes for a model, by JSON name, that are also stored; transient ones map to null
+    private Map<String, MongoPersistentProperty> jsonProperties(Class<?> type, MongoPersistentEntity<?> entity) {
+        BeanDescription description = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(type));
+        Map<String, MongoPersistentProperty> properties = new HashMap<>();
+        for (BeanPropertyDefinition definition : description.findProperties()) {
+            if (!definition.couldSerialize()) continue;
+            MongoPersistentProperty property = entity.getPersistentProperty(definition.getInternalName());
+            // A boolean field named isX is written through its isX() getter as "x"
+            AnnotatedMethod getter = definition.getGetter();
+            if (property == null && getter != null) property = entity.getPersistentProperty(getter.getName());
+            if (property != null) {
+                properties.put(definition.getName(), property);
+            } else if (definition.getField() != null && definition.getField().hasAnnotation(Transient.class)) {
+                properties.put(definition.getName(), null);
+            }
+        }
+        return properties;
+    }
+
+    private record CacheKey(Class<?> type, String fields, List<String> required) {
+    }
+
+    /**
+     * The fields of a model to read and write for one field list.
+     *
+     * @param key          The selected JSON properties in a canonical order, to tell representations apart in entity tags.
+     * @param properties   The selected JSON properties.
+     * @param storedFields The stored fields to read, including those the handler needs.
+     * @param filters      The Jackson filters writing only the selected properties.
+     */
+    public record Projection(String key, Set<String> properties, List<String> storedFields, FilterProvider filters) {
+
+        /**
+         * @return Whether the response includes the given JSON property.
+         */
+        public boolean includes(String property) {
+            return properties.contains(property);
+        }
+
+        /**
+         * @return The query, reading only the stored fields of this projection.
+         */
+        public Query applyTo(Query query) {
+            storedFields.forEach(field -> query.fields().include(field));
+            return query;
+        }
+    }
+
+    /**
+     * Thrown when a field list names a property the model does not have.
+     */
+    public static class InvalidFieldsException extends RuntimeException {
+
+        public InvalidFieldsException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.gigglegazette.user_service.repository;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Applies the fields present in a request body to a stored document with a single
+ * {@code findAndModify}, instead of loading the document, changing it and saving it back.
+ * <p>
+ * Each service builds on its own and they share no library, so article-service and user-service
+ * carry identical copies of this class, as they do of {@code CustomResponse}; change both together.
+ */
+@Component
+public class PartialUpdateOperations {
+
+    // Maintained by MongoDB, Spring Data or this class; never taken from a request body
+    private static final Set<String> MANAGED_FIELDS = Set.of("_id", "_class", "createdAt", "updatedAt");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Set every non-null field of {@code changes} on the document with the given ID.
+     *
+     * @see #update(String, Object, Class, Long, String...)
+     */
+    public <T> Optional<T> update(String id, T changes, Class<T> type, String... ignoredFields) {
+        return update(id, changes, type, null, ignoredFields);
+    }
+
+    /**
+     * Set every non-null field of {@code changes} on the document with the given ID.
+     * Primitive numbers cannot be left out of a request body, so zero or negative values
+     * are treated as not provided, as the previous field-by-field updates did.
+     * <p>
+     * If the type has a {@code @Version} property it is incremented, and when
+     * {@code expectedVersion} is given the update only applies to that version.
+     *
+     * @param id              The ID of the document to update.
+     * @param changes         The request body holding the new values.
+     * @param type            The document type.
+     * @param expectedVersion The version the client last read, or null to update unconditionally.
+     * @param ignoredFields   Stored field names that must not be updated through this call.
+     * @return The updated document, or empty if no document has that ID.
+     * @throws OptimisticLockingFailureException If the document exists but is no longer at the expected version.
+     */
+    public <T> Optional<T> update(String id, Object changes, Class<T> type, Long expectedVersion, String... ignoredFields) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        MongoPersistentProperty versionProperty = entity.getVersionProperty();
+        Set<String> ignored = Set.of(ignoredFields);
+
+        Document fields = new Document();
+        mongoTemplate.getConverter().write(changes, fields); // Null properties are not written
+        Update update = new Update();
+        fields.forEach((field, value) -> {
+            if (MANAGED_FIELDS.contains(field) || ignored.contains(field)) return;
+            if (versionProperty != null && field.equals(versionProperty.getFieldName())) return;
+            if (value instanceof Number number && number.doubleValue() <= 0) return;
+            update.set(field, value);
+        });
+        update.set("updatedAt", LocalDateTime.now()); // findAndModify bypasses auditing
+
+        Query query = new Query(Criteria.where("_id").is(id));
+        if (versionProperty != null) {
+            update.inc(versionProperty.getFieldName(), 1);
+            if (expectedVersion != null) query.addCriteria(Criteria.where(versionProperty.getFieldName()).is(expectedVersion));
+        }
+        T updated = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), type);
+        if (updated == null && expectedVersion != null
+                && mongoTemplate.exists(new Query(Criteria.where("_id").is(id)), type)) {
+            throw new OptimisticLockingFailureException("Document " + id + " is no longer at version " + expectedVersion);
+        }
+        return Optional.ofNullable(updated);
+    }
+}
@@ -3,9 +3,12 @@ package com.gigglegazette.user_service.repository;
 import com.gigglegazette.user_service.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends MongoRepository<User,String> {
+    List<User> findByIdIn(Collection<String> ids);
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
     boolean existsByEmail(String email);
@@ -0,0 +1,81 @@
+package com.gigglegazette.user_service.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class ArticleServiceNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleServiceNotifier.class);
+
+    private static final String ARTICLE_SERVICE = "article-service";
+    // article-service refuses calls to its internal /authors endpoints without the shared secret
+    private static final String INTERNAL_TOKEN_HEADER = "X-Internal-Token";
+
+    @Value("${gigglegazette.app.internalToken:}")
+    private String internalToken;
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    /**
+     * Tell every running article-service instance to drop its cached copy of a user.
+     * Each instance keeps its own author cache, so the call is sent to all of them
+     * rather than to a single load-balanced one. Failures are only logged; the
+     * cache TTL still bounds how long a missed instance serves stale data.
+     *
+     * @param userId The ID of the user that was updated or deleted.
+     */
+    public void evictAuthor(String userId) {
+        WebClient webClient = webClientBuilder.build();
+        for (ServiceInstance instance : discoveryClient.getInstances(ARTICLE_SERVICE)) {
+            webClient.delete()
+                    .uri(instance.getUri() + "/authors/{id}/cache", userId)
+                    .header(INTERNAL_TOKEN_HEADER, internalToken)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .subscribe(
+                            response -> { },
+                            error -> logger.warn("Could not evict author {} from {}: {}",
+                                    userId, instance.getUri(), error.getMessage()));
+        }
+    }
+
+    /**
+     * Ask article-service to delete the articles and comments of a deleted user.
+     * The deletion runs as a job stored in article-service's database, so one instance
+     * is enough; instances are tried in turn until one accepts it. Failures are only logged.
+     *
+     * @param userId The ID of the deleted user.
+     */
+    public void deleteAuthorContent(String userId) {
+        WebClient webClient = webClientBuilder.build();
+        Flux.fromIterable(discoveryClient.getInstances(ARTICLE_SERVICE))
+                .concatMap(instance -> webClient.delete()
+                        .uri(instance.getUri() + "/authors/{id}", userId)
+                        .header(INTERNAL_TOKEN_HEADER, internalToken)
+                        .retrieve()
+                        .toBodilessEntity()
+                        .map(response -> true)
+                        .onErrorResume(error -> {
+                            logger.warn("Could not ask {} to delete the content of author {}: {}",
+                                    instance.getUri(), userId, error.getMessage());
+                            return Mono.empty();
+                        }))
+                .next()
+                .switchIfEmpty(Mono.fromRunnable(() ->
+                        logger.error("No article-service instance accepted the deletion of the content of author {}", userId)))
+                .subscribe();
+    }
+}